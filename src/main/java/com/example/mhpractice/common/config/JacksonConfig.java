@@ -9,7 +9,7 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 /**
  * Configuration for JSON serialization/deserialization.
- * Used by AuditService to store metadata as JSON.
+ * Used by AuditWriter to store audit metadata as JSON.
  */
 @Configuration
 public class JacksonConfig {
@@ -1,36 +1,78 @@
 package com.example.mhpractice.common.config;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.converter.ConversionException;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.DeserializationException;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.support.serializer.JacksonJsonDeserializer;
+import org.springframework.kafka.support.serializer.JacksonJsonSerializer;
 import org.springframework.kafka.transaction.KafkaTransactionManager;
 import org.springframework.util.backoff.FixedBackOff;
 
+import com.example.mhpractice.common.exception.BusinessException;
+import com.example.mhpractice.common.exception.ErrorCode;
+import com.example.mhpractice.common.kafka.BinaryEventCodec;
+import com.example.mhpractice.common.kafka.BinaryEventDeserializer;
+import com.example.mhpractice.common.kafka.BinaryEventSerializer;
+import com.example.mhpractice.common.kafka.RetryTopics;
+import com.example.mhpractice.features.wallet.event.TransferEventSchemas;
+
+import io.micrometer.core.instrument.ImmutableTag;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
 @EnableKafka
+@Slf4j
 @Configuration
+@RequiredArgsConstructor
 public class KafkaConfig {
 
+    private final MeterRegistry meterRegistry;
+    private final RetryTopics retryTopics;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // Producer retries; failed listener records go to retry topics, see RetryTopics
     @Value("${app.kafka.retry.count}")
     private int retryCount;
 
@@ -43,10 +85,86 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
-    // Creates Kafka template for sending messages
+    @Value("${app.kafka.transfer-batch.max-records}")
+    private int transferBatchMaxRecords;
+
+    // Default consumer threads per listener container; listeners can
+    // override it with @KafkaListener(concurrency = ...), see app.kafka.listeners
+    @Value("${app.kafka.listener.concurrency}")
+    private int listenerConcurrency;
+
+    @Value("${app.kafka.topics.transfer-request.partitions}")
+    private int transferRequestPartitions;
+
+    // Topics whose values are produced with BinaryEventCodec instead of JSON
+    @Value("${app.kafka.serialization.binary-topics:}")
+    private List<String> binaryTopics;
+
+    // ===== Producer profiles =====
+    // low-latency: request path, send immediately (topics routed by ProducerProfileRouter)
+    // high-throughput: everything else (notifications), batch + compress bursts
+
+    @Value("${app.kafka.producer.low-latency.linger-ms}")
+    private int lowLatencyLingerMs;
+
+    @Value("${app.kafka.producer.low-latency.batch-size}")
+    private int lowLatencyBatchSize;
+
+    @Value("${app.kafka.producer.low-latency.compression}")
+    private String lowLatencyCompression;
+
+    @Value("${app.kafka.producer.low-latency.buffer-memory}")
+    private long lowLatencyBufferMemory;
+
+    @Value("${app.kafka.producer.high-throughput.linger-ms}")
+    private int highThroughputLingerMs;
+
+    @Value("${app.kafka.producer.high-throughput.batch-size}")
+    private int highThroughputBatchSize;
+
+    @Value("${app.kafka.producer.high-throughput.compression}")
+    private String highThroughputCompression;
+
+    @Value("${app.kafka.producer.high-throughput.buffer-memory}")
+    private long highThroughputBufferMemory;
+
+    private final BinaryEventCodec binaryEventCodec = new BinaryEventCodec(TransferEventSchemas.ALL);
+
+    // Transfer requests are keyed by sender wallet id, so partitions = unit of
+    // parallelism. Scale the wallet-service-group by adding partitions.
     @Bean
+    public NewTopic transferRequestTopic() {
+        return TopicBuilder.name("transfer.events.request")
+                .partitions(transferRequestPartitions)
+                .build();
+    }
+
+    // Retry tiers + DLT of every transfer topic (request ones keep its partition count)
+    @Bean
+    public KafkaAdmin.NewTopics retryTopicsDeclaration() {
+        List<NewTopic> topics = new ArrayList<>();
+        for (String baseTopic : List.of("transfer.events.request", "transfer.events.success",
+                "transfer.events.failed", "transfer.events.rollback")) {
+            int partitions = baseTopic.equals("transfer.events.request") ? transferRequestPartitions : 1;
+            for (String topic : retryTopics.retryTopics(baseTopic)) {
+                topics.add(TopicBuilder.name(topic).partitions(partitions).build());
+            }
+            topics.add(TopicBuilder.name(retryTopics.deadLetterTopic(baseTopic)).partitions(partitions).build());
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
+    // Creates Kafka template for sending messages (high-throughput profile)
+    @Bean
+    @Primary
     public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+        return profileTemplate(producerFactory(), "high-throughput");
+    }
+
+    // Request-path template, see ProducerProfileRouter
+    @Bean
+    public KafkaTemplate<String, Object> lowLatencyKafkaTemplate() {
+        return profileTemplate(lowLatencyProducerFactory(), "low-latency");
     }
 
     // Transaction manager for @Transactional support
@@ -55,26 +173,81 @@ public class KafkaConfig {
         return new KafkaTransactionManager<>(producerFactory());
     }
 
-    // Creates Kafka producers for sending messages
+    // Creates Kafka producers for sending messages (high-throughput profile)
     @Bean
+    @Primary
     public ProducerFactory<String, Object> producerFactory() {
+        return profileProducerFactory("high-throughput", "wallet-tx-",
+                highThroughputLingerMs, highThroughputBatchSize, highThroughputCompression, highThroughputBufferMemory);
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> lowLatencyProducerFactory() {
+        return profileProducerFactory("low-latency", "wallet-tx-ll-",
+                lowLatencyLingerMs, lowLatencyBatchSize, lowLatencyCompression, lowLatencyBufferMemory);
+    }
+
+    private ProducerFactory<String, Object> profileProducerFactory(String profile, String transactionalIdPrefix,
+            int lingerMs, int batchSize, String compression, long bufferMemory) {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
 
         // Transaction support
         // Ensures messages sent in a transaction are atomic (all or nothing)
         // Prevents duplicate messages even if producer retries
+        // Each profile needs its own transactional id prefix
         props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "wallet-tx-");
+        props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalIdPrefix);
 
         // Reliability settings
         props.put(ProducerConfig.ACKS_CONFIG, "all"); // Wait for all replicas
         props.put(ProducerConfig.RETRIES_CONFIG, retryCount); // Retry 3 times
         props.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, retryBackoffMs); // Wait before retry
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5); // Max allowed with idempotence
+
+        // Batching settings (per profile)
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs); // Wait to fill a batch
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize); // Max bytes per partition batch
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression); // none | lz4 | zstd | ...
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory); // send() blocks when full
+
+        // Value serializer is picked per topic, see valueSerializer()
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(props,
+                StringSerializer::new, this::valueSerializer);
 
-        return new DefaultKafkaProducerFactory<>(props);
+        // kafka.producer.* client metrics (batch size, compression rate, ...) tagged by profile
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry,
+                List.of(new ImmutableTag("profile", profile))));
+        return factory;
+    }
+
+    // spring.kafka.template timer = send -> broker ack latency, tagged by profile
+    private KafkaTemplate<String, Object> profileTemplate(ProducerFactory<String, Object> factory, String profile) {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(factory);
+        template.setMicrometerTags(Map.of("profile", profile));
+        return template;
+    }
+
+    // binary-topics -> BinaryEventSerializer, everything else -> JacksonJsonSerializer.
+    // Raw byte[] values (undeserializable records sent to a DLT) are written as is.
+    private Serializer<Object> valueSerializer() {
+        Map<Pattern, Serializer<?>> delegates = new HashMap<>();
+        for (String topic : binaryTopics) {
+            if (!topic.isBlank()) {
+                delegates.put(Pattern.compile(Pattern.quote(topic.trim())), new BinaryEventSerializer(binaryEventCodec));
+            }
+        }
+
+        Map<Class<?>, Serializer<?>> byType = new LinkedHashMap<>();
+        byType.put(byte[].class, new ByteArraySerializer());
+        byType.put(Object.class, new DelegatingByTopicSerializer(delegates, new JacksonJsonSerializer<>()));
+        return new DelegatingByTypeSerializer(byType, true);
+    }
+
+    // Binary or JSON is detected per record, so consumers read both formats
+    private Deserializer<Object> valueDeserializer() {
+        return new ErrorHandlingDeserializer<>(new BinaryEventDeserializer(binaryEventCodec, new JacksonJsonDeserializer<>()));
     }
 
     // Creates Kafka consumers for receiving messages
@@ -84,21 +257,17 @@ public class KafkaConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
 
-        // Error-handling deserializers (wraps actual deserializer)
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
-
-        // Actual deserializers
-        props.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, StringDeserializer.class);
-        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        // Error-handling deserializers (wraps actual deserializer), see
+        // valueDeserializer(); JacksonJsonDeserializer is configured from these props
 
         // Trust only your event packages
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.example.mhpractice.features.wallet.event");
-        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, true);
-        // props.put(JsonDeserializer.VALUE_DEFAULT_TYPE,
+        props.put(JacksonJsonDeserializer.TRUSTED_PACKAGES, "com.example.mhpractice.features.wallet.event");
+        props.put(JacksonJsonDeserializer.USE_TYPE_INFO_HEADERS, true);
+        // props.put(JacksonJsonDeserializer.VALUE_DEFAULT_TYPE,
         // "com.example.mhpractice.features.wallet.event.TransferRequestEvent");
 
-        return new DefaultKafkaConsumerFactory<>(props);
+        return new DefaultKafkaConsumerFactory<>(props,
+                () -> new ErrorHandlingDeserializer<>(new StringDeserializer()), this::valueDeserializer);
     }
 
     // Required for @KafkaListener to work!
@@ -107,11 +276,101 @@ public class KafkaConfig {
         // Creates Kafka listener container factory
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(listenerConcurrency);
 
-        // Optional: Add error handling with retry
-        factory.setCommonErrorHandler(new DefaultErrorHandler(
-                new FixedBackOff(retryBackoffMs, retryCount)));
+        // Failed records move to the retry tiers, the partition keeps going
+        factory.setCommonErrorHandler(errorHandler());
 
         return factory;
     }
+
+    // Consumes the retry tiers: records are nacked until their tier delay
+    // elapsed (RetryTopics.runWhenDue), which needs manual acks
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> retryKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(errorHandler());
+        return factory;
+    }
+
+    // Batch listener: one listener call receives up to max-records from a poll
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>(consumerFactory().getConfigurationProperties());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, transferBatchMaxRecords);
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props,
+                () -> new ErrorHandlingDeserializer<>(new StringDeserializer()), this::valueDeserializer));
+        factory.setBatchListener(true);
+        factory.setConcurrency(listenerConcurrency);
+
+        // Batch listeners report the failed index (BatchListenerFailedException),
+        // only that record moves to the retry tiers
+        factory.setCommonErrorHandler(errorHandler());
+
+        return factory;
+    }
+
+    // ===== Non-blocking retries =====
+
+    // No in-place retries: the failed record is recovered (re-published) at once.
+    // Business rejections are final: the saga already cancelled the record and
+    // wrote its failed event, so they are acked instead of walking the tiers.
+    private DefaultErrorHandler errorHandler() {
+        DeadLetterPublishingRecoverer deadLetterPublishingRecoverer = deadLetterPublishingRecoverer();
+        DefaultErrorHandler handler = new DefaultErrorHandler((record, ex) -> {
+            BusinessException rejection = businessRejection(ex);
+            if (rejection != null) {
+                log.warn("Rejected {}-{}@{}, not retried: {}", record.topic(), record.partition(), record.offset(),
+                        rejection.getMessage());
+                meterRegistry.counter("kafka.retry.skipped", "topic", retryTopics.baseTopic(record.topic()),
+                        "reason", rejection.getErrorCode().name()).increment();
+                return;
+            }
+            deadLetterPublishingRecoverer.accept(record, ex);
+        }, new FixedBackOff(0L, 0L));
+        handler.addNotRetryableExceptions(BusinessException.class);
+        return handler;
+    }
+
+    // TRANSACTION_INTERNAL_ERROR wraps unexpected (possibly transient) failures, those still retry
+    private static BusinessException businessRejection(Exception ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BusinessException e) {
+                return e.getErrorCode() == ErrorCode.TRANSACTION_INTERNAL_ERROR ? null : e;
+            }
+        }
+        return null;
+    }
+
+    // T -> T.retry-1 -> ... -> T.dlt; records that can never succeed go straight to T.dlt
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer() {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate(),
+                (record, ex) -> new TopicPartition(retryDestination(record, ex), -1)); // -1 = partition by key
+        recoverer.setHeadersFunction((record, ex) -> {
+            Headers headers = new RecordHeaders();
+            String destination = retryDestination(record, ex);
+            if (!retryTopics.isDeadLetterTopic(destination)) {
+                long dueAt = System.currentTimeMillis() + retryTopics.delayMs(destination);
+                headers.add(RetryTopics.DUE_AT_HEADER, Long.toString(dueAt).getBytes(StandardCharsets.UTF_8));
+            }
+            meterRegistry.counter("kafka.retry.published", "topic", retryTopics.baseTopic(record.topic()),
+                    "destination", retryTopics.isDeadLetterTopic(destination) ? "dlt" : "retry").increment();
+            return headers;
+        });
+        return recoverer;
+    }
+
+    private String retryDestination(ConsumerRecord<?, ?> record, Exception ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeserializationException || cause instanceof ConversionException) {
+                return retryTopics.deadLetterTopic(record.topic());
+            }
+        }
+        return retryTopics.nextTopic(record.topic());
+    }
 }
@@ -0,0 +1,46 @@
+package com.example.mhpractice.common.config;
+
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.mhpractice.features.user.otp.JpaOtpStore;
+import com.example.mhpractice.features.user.otp.OtpStore;
+import com.example.mhpractice.features.user.otp.RedisOtpStore;
+import com.example.mhpractice.features.user.repository.OtpResendTrackingRepository;
+import com.example.mhpractice.features.user.repository.VerificationTokenRepository;
+
+@Configuration
+public class OtpStoreConfig {
+
+    @Value("${app.auth.otp.store}")
+    private OtpStore.Mode mode;
+
+    @Value("${app.auth.otp.ttl-ms}")
+    private long ttlMs;
+
+    @Value("${app.auth.otp.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${app.auth.otp.resend.interval-ms}")
+    private long resendIntervalMs;
+
+    @Value("${app.auth.otp.resend.max}")
+    private int maxResend;
+
+    @Value("${app.auth.otp.resend.window-ms}")
+    private long resendWindowMs;
+
+    @Bean
+    public OtpStore otpStore(RedissonClient redissonClient,
+            VerificationTokenRepository verificationTokenRepository,
+            OtpResendTrackingRepository otpResendTrackingRepository) {
+        return switch (mode) {
+            case REDIS -> new RedisOtpStore(redissonClient, ttlMs, maxAttempts,
+                    resendIntervalMs, maxResend, resendWindowMs);
+            case JPA -> new JpaOtpStore(verificationTokenRepository, otpResendTrackingRepository, ttlMs, maxAttempts,
+                    resendIntervalMs, maxResend, resendWindowMs);
+        };
+    }
+}
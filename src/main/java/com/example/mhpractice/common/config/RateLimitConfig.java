@@ -0,0 +1,90 @@
+package com.example.mhpractice.common.config;
+
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.mhpractice.common.ratelimit.RateLimitFilter;
+import com.example.mhpractice.common.ratelimit.RateLimitRule;
+import com.example.mhpractice.common.ratelimit.TokenBucketRateLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${app.rate-limit.local-share}")
+    private double localShare;
+
+    @Value("${app.rate-limit.local-max-keys}")
+    private int localMaxKeys;
+
+    // ===== Rules (see RateLimitRule), every matching rule must pass =====
+
+    @Value("${app.rate-limit.rules.auth.path}")
+    private String authPath;
+
+    @Value("${app.rate-limit.rules.auth.scope}")
+    private RateLimitRule.Scope authScope;
+
+    @Value("${app.rate-limit.rules.auth.permits}")
+    private int authPermits;
+
+    @Value("${app.rate-limit.rules.auth.period-ms}")
+    private long authPeriodMs;
+
+    @Value("${app.rate-limit.rules.login.path}")
+    private String loginPath;
+
+    @Value("${app.rate-limit.rules.login.scope}")
+    private RateLimitRule.Scope loginScope;
+
+    @Value("${app.rate-limit.rules.login.permits}")
+    private int loginPermits;
+
+    @Value("${app.rate-limit.rules.login.period-ms}")
+    private long loginPeriodMs;
+
+    @Value("${app.rate-limit.rules.transfer.path}")
+    private String transferPath;
+
+    @Value("${app.rate-limit.rules.transfer.scope}")
+    private RateLimitRule.Scope transferScope;
+
+    @Value("${app.rate-limit.rules.transfer.permits}")
+    private int transferPermits;
+
+    @Value("${app.rate-limit.rules.transfer.period-ms}")
+    private long transferPeriodMs;
+
+    @Bean
+    public RateLimitRule authRateLimitRule() {
+        return RateLimitRule.of("auth", authPath, authScope, authPermits, authPeriodMs);
+    }
+
+    @Bean
+    public RateLimitRule loginRateLimitRule() {
+        return RateLimitRule.of("login", loginPath, loginScope, loginPermits, loginPeriodMs);
+    }
+
+    @Bean
+    public RateLimitRule transferRateLimitRule() {
+        return RateLimitRule.of("transfer", transferPath, transferScope, transferPermits, transferPeriodMs);
+    }
+
+    @Bean
+    public TokenBucketRateLimiter tokenBucketRateLimiter(RedissonClient redissonClient, MeterRegistry meterRegistry) {
+        return new TokenBucketRateLimiter(redissonClient, meterRegistry, localShare, localMaxKeys);
+    }
+
+    // Only runs inside the security chain (after JwtAuthenticationFilter),
+    // not a second time as a plain servlet filter before authentication
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
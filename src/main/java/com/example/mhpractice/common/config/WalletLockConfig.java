@@ -0,0 +1,37 @@
+package com.example.mhpractice.common.config;
+
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.mhpractice.features.wallet.lock.HybridWalletLockManager;
+import com.example.mhpractice.features.wallet.lock.LocalStripedWalletLockManager;
+import com.example.mhpractice.features.wallet.lock.RedissonWalletLockManager;
+import com.example.mhpractice.features.wallet.lock.WalletLockManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class WalletLockConfig {
+
+    @Value("${app.wallet.lock.mode}")
+    private WalletLockManager.Mode mode;
+
+    @Value("${app.wallet.lock.lease-ms}")
+    private long leaseMs;
+
+    @Value("${app.wallet.lock.stripes}")
+    private int stripes;
+
+    @Bean
+    public WalletLockManager walletLockManager(RedissonClient redissonClient, MeterRegistry meterRegistry) {
+        return switch (mode) {
+            case REDISSON -> new RedissonWalletLockManager(redissonClient, leaseMs, meterRegistry);
+            case LOCAL -> new LocalStripedWalletLockManager(stripes, meterRegistry);
+            case HYBRID -> new HybridWalletLockManager(
+                    new LocalStripedWalletLockManager(stripes, meterRegistry),
+                    new RedissonWalletLockManager(redissonClient, leaseMs, meterRegistry));
+        };
+    }
+}
@@ -22,10 +22,14 @@ public enum ErrorCode {
 
     WALLET_NOT_FOUND("WALLET_404", "Wallet not found"),
     WALLET_ALREADY_EXISTS("WALLET_409", "Wallet already exists"),
+    WALLET_CONCURRENT_UPDATE("WALLET_409", "Wallet was updated concurrently, please retry"),
     INSUFFICIENT_BALANCE("WALLET_401", "Insufficient balance"),
     TRANSACTION_NOT_FOUND("WALLET_404", "Transaction not found"),
+    INVALID_CURSOR("WALLET_400", "Invalid pagination cursor"),
     TRANSACTION_INTERNAL_ERROR("TRANSACTION_500", "Transaction internal error"),
 
+    TOO_MANY_REQUESTS("SYSTEM_429", "Too many requests, please retry later"),
+
     EMAIL_SERVER_ERROR("EMAIL_500", "Email server error");
 
     private final String code;
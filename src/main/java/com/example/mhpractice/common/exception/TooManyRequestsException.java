@@ -0,0 +1,17 @@
+package com.example.mhpractice.common.exception;
+
+import lombok.Getter;
+
+/**
+ * Mapped to 429 + Retry-After by ResponseExceptionHandler.
+ */
+@Getter
+public class TooManyRequestsException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(ErrorCode.TOO_MANY_REQUESTS, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.mhpractice.common.http.advice;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 import com.example.mhpractice.common.exception.ErrorCode;
 import com.example.mhpractice.common.exception.ErrorResponse;
+import com.example.mhpractice.common.exception.TooManyRequestsException;
 // import com.example.mhpractice.common.http.advice.StandardResponse; // same package, no need to import
 
 @RestControllerAdvice
@@ -28,4 +30,20 @@ public class ResponseExceptionHandler {
                 .status(HttpStatus.UNAUTHORIZED)
                 .body(StandardResponse.error(errorResponse));
     }
+
+    // Back-pressure (saturated hashing pool, rate limits): client should retry later
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<StandardResponse<Void>> handleException(TooManyRequestsException e) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .code(e.getErrorCode().getCode())
+                .message(e.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(StandardResponse.error(errorResponse));
+    }
 }
@@ -0,0 +1,189 @@
+package com.example.mhpractice.common.kafka;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * Compact, schema-driven binary encoding for Kafka events.
+ *
+ * Layout:
+ * [magic 0xB2][schema name length (u16)][schema name (UTF-8)][field count (u8)]
+ * then per field: [type tag (u8), 0 = null][value length (int)][value]
+ *
+ * Values: STRING = UTF-8, UUID = 2 longs, DECIMAL = int scale + unscaled
+ * bytes, TIMESTAMP = long epoch second (UTC) + int nano, INT = int. No field
+ * names on the wire, only positions from EventSchema.
+ *
+ * Every value is length-prefixed, so a reader skips trailing fields it has
+ * no schema for even when their type tag is newer than its FieldType. Every
+ * length is checked against the bytes left, a corrupt frame fails instead
+ * of allocating whatever the prefix says.
+ */
+public final class BinaryEventCodec {
+
+    // 0xB1 was the first layout (no value lengths), never read any more
+    static final byte MAGIC = (byte) 0xB2;
+
+    private final Map<Class<?>, EventSchema<?>> schemasByType = new HashMap<>();
+    private final Map<String, EventSchema<?>> schemasByName = new HashMap<>();
+
+    public BinaryEventCodec(Collection<EventSchema<?>> schemas) {
+        for (EventSchema<?> schema : schemas) {
+            schemasByType.put(schema.getType(), schema);
+            schemasByName.put(schema.getName(), schema);
+        }
+    }
+
+    // JSON payloads start with '{' / '"', never with the magic byte
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public boolean supports(Class<?> type) {
+        return schemasByType.containsKey(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    public byte[] encode(Object event) {
+        EventSchema<Object> schema = (EventSchema<Object>) schemasByType.get(event.getClass());
+        if (schema == null) {
+            throw new SerializationException("No binary schema for " + event.getClass().getName());
+        }
+
+        try {
+            byte[] name = schema.getName().getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC);
+            out.writeShort(name.length);
+            out.write(name);
+            out.writeByte(schema.getFields().size());
+            for (EventSchema.Field<Object> field : schema.getFields()) {
+                writeValue(out, field.type(), field.getter().apply(event));
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Failed to encode " + schema.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public Object decode(byte[] data) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            if (!in.hasRemaining() || in.get() != MAGIC) {
+                throw new SerializationException("Not a binary event");
+            }
+
+            String name = StandardCharsets.UTF_8.decode(slice(in, Short.toUnsignedInt(in.getShort()))).toString();
+            EventSchema<Object> schema = (EventSchema<Object>) schemasByName.get(name);
+            if (schema == null) {
+                throw new SerializationException("Unknown event schema " + name);
+            }
+
+            Object event = schema.newInstance();
+            int count = Byte.toUnsignedInt(in.get());
+            for (int i = 0; i < count; i++) {
+                int tag = Byte.toUnsignedInt(in.get());
+                if (tag == 0) {
+                    continue;
+                }
+                ByteBuffer value = slice(in, in.getInt());
+
+                // Trailing fields from a newer writer are skipped, whatever their type
+                if (i >= schema.getFields().size()) {
+                    continue;
+                }
+
+                EventSchema.Field<Object> field = schema.getFields().get(i);
+                if (tag != field.type().ordinal() + 1) {
+                    throw new SerializationException("Incompatible type for " + name + "." + field.name()
+                            + ": expected " + field.type() + ", got tag " + tag);
+                }
+                field.setter().accept(event, readValue(value, field.type()));
+            }
+            return event;
+        } catch (RuntimeException e) {
+            if (e instanceof SerializationException se) {
+                throw se;
+            }
+            throw new SerializationException("Failed to decode binary event", e);
+        }
+    }
+
+    // ================
+    // Private Methods
+    // ================
+
+    private static void writeValue(DataOutputStream out, FieldType type, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+        byte[] bytes = switch (type) {
+            case STRING -> ((String) value).getBytes(StandardCharsets.UTF_8);
+            case UUID -> {
+                UUID uuid = (UUID) value;
+                yield ByteBuffer.allocate(16)
+                        .putLong(uuid.getMostSignificantBits())
+                        .putLong(uuid.getLeastSignificantBits())
+                        .array();
+            }
+            case DECIMAL -> {
+                BigDecimal decimal = (BigDecimal) value;
+                byte[] unscaled = decimal.unscaledValue().toByteArray();
+                yield ByteBuffer.allocate(4 + unscaled.length).putInt(decimal.scale()).put(unscaled).array();
+            }
+            case TIMESTAMP -> {
+                LocalDateTime timestamp = (LocalDateTime) value;
+                yield ByteBuffer.allocate(12)
+                        .putLong(timestamp.toEpochSecond(ZoneOffset.UTC))
+                        .putInt(timestamp.getNano())
+                        .array();
+            }
+            case INT -> ByteBuffer.allocate(4).putInt((Integer) value).array();
+        };
+        out.writeByte(type.ordinal() + 1);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Object readValue(ByteBuffer in, FieldType type) {
+        return switch (type) {
+            case STRING -> StandardCharsets.UTF_8.decode(in).toString();
+            case UUID -> new UUID(in.getLong(), in.getLong());
+            case DECIMAL -> {
+                int scale = in.getInt();
+                byte[] unscaled = new byte[in.remaining()];
+                in.get(unscaled);
+                yield new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            case TIMESTAMP -> LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+            case INT -> in.getInt();
+        };
+    }
+
+    // Next length bytes as their own buffer, the length is untrusted input
+    private static ByteBuffer slice(ByteBuffer in, int length) {
+        if (length < 0 || length > in.remaining()) {
+            throw new SerializationException("Corrupt binary event: length " + length
+                    + " with " + in.remaining() + " bytes left");
+        }
+        ByteBuffer value = in.slice(in.position(), length);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.mhpractice.common.kafka;
+
+import java.util.Map;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Consumer side of BinaryEventCodec.
+ *
+ * Detects the format per record (magic byte) and hands anything else to the
+ * fallback (JacksonJsonDeserializer), so a topic can be switched between JSON and
+ * binary on the producer side without draining it first.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+    private final BinaryEventCodec codec;
+    private final Deserializer<Object> fallback;
+
+    public BinaryEventDeserializer(BinaryEventCodec codec, Deserializer<Object> fallback) {
+        this.codec = codec;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        fallback.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return BinaryEventCodec.isBinary(data) ? codec.decode(data) : fallback.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        return BinaryEventCodec.isBinary(data) ? codec.decode(data) : fallback.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        fallback.close();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.mhpractice.common.kafka;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Producer side of BinaryEventCodec, used for the topics listed in
+ * app.kafka.serialization.binary-topics (see KafkaConfig).
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    private final BinaryEventCodec codec;
+
+    public BinaryEventSerializer(BinaryEventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data == null ? null : codec.encode(data);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.mhpractice.common.kafka;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Field layout of one event type for BinaryEventCodec.
+ *
+ * Evolution rules (checked by EventSchemaCompatibilityTest against the
+ * recorded schemas in src/test/resources/kafka-schemas):
+ * - fields are only ever appended, never removed, renamed, retyped or reordered
+ * - the schema name never changes (it is on the wire)
+ * Old readers skip trailing fields they don't know, new readers leave fields
+ * missing from old messages at their default.
+ */
+public final class EventSchema<T> {
+
+    public record Field<T>(String name, FieldType type, Function<T, Object> getter, BiConsumer<T, Object> setter) {
+    }
+
+    private final String name;
+    private final Class<T> type;
+    private final Supplier<T> factory;
+    private final List<Field<T>> fields;
+
+    private EventSchema(String name, Class<T> type, Supplier<T> factory, List<Field<T>> fields) {
+        this.name = name;
+        this.type = type;
+        this.factory = factory;
+        this.fields = List.copyOf(fields);
+    }
+
+    public static <T> Builder<T> builder(String name, Class<T> type, Supplier<T> factory) {
+        return new Builder<>(name, type, factory);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public List<Field<T>> getFields() {
+        return fields;
+    }
+
+    T newInstance() {
+        return factory.get();
+    }
+
+    public static final class Builder<T> {
+        private final String name;
+        private final Class<T> type;
+        private final Supplier<T> factory;
+        private final List<Field<T>> fields = new ArrayList<>();
+
+        private Builder(String name, Class<T> type, Supplier<T> factory) {
+            this.name = name;
+            this.type = type;
+            this.factory = factory;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <V> Builder<T> field(String fieldName, FieldType fieldType, Function<T, V> getter,
+                BiConsumer<T, V> setter) {
+            fields.add(new Field<>(fieldName, fieldType, (Function<T, Object>) getter,
+                    (instance, value) -> setter.accept(instance, (V) value)));
+            return this;
+        }
+
+        public EventSchema<T> build() {
+            if (fields.size() > 255) {
+                throw new IllegalStateException("Too many fields in schema " + name);
+            }
+            return new EventSchema<>(name, type, factory, fields);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.mhpractice.common.kafka;
+
+/**
+ * Wire types supported by BinaryEventCodec. Append only: the ordinal + 1 is
+ * the type tag written before every field (0 = null).
+ */
+public enum FieldType {
+    STRING,
+    UUID,
+    DECIMAL,
+    TIMESTAMP,
+    INT
+}
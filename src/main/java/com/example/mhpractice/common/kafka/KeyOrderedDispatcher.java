@@ -0,0 +1,124 @@
+package com.example.mhpractice.common.kafka;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the records of a batch listener call on virtual threads, one thread per
+ * record key.
+ *
+ * 1. Group the records by key (records without a key by partition), keeping
+ *    poll order inside each group.
+ * 2. Run every group sequentially on its own virtual thread, so per-key order
+ *    is kept while slow I/O for one key no longer blocks the others.
+ * 3. Wait for all groups before returning. The container only commits the
+ *    batch offsets after the listener returns, i.e. after in-order completion.
+ *
+ * On failure the lowest failed index is reported as BatchListenerFailedException,
+ * so DefaultErrorHandler commits everything before it and retries from there.
+ * Records after it that already completed on other keys are redelivered
+ * (at-least-once, same as a plain batch retry).
+ *
+ * With app.kafka.notification-dispatch.virtual-threads=false records run
+ * inline on the consumer thread.
+ */
+@Slf4j
+@Component
+public class KeyOrderedDispatcher {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kafka.notification-dispatch.virtual-threads}")
+    private boolean virtualThreads;
+
+    public KeyOrderedDispatcher(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <V> void dispatch(List<ConsumerRecord<String, V>> records, Consumer<V> handler) {
+        if (!virtualThreads || records.size() <= 1) {
+            for (int i = 0; i < records.size(); i++) {
+                try {
+                    handler.accept(records.get(i).value());
+                } catch (RuntimeException e) {
+                    throw new BatchListenerFailedException(e.getMessage(), e, i);
+                }
+            }
+            return;
+        }
+
+        // 1. Group indexes by key
+        Map<Object, List<Integer>> byKey = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, V> record = records.get(i);
+            Object key = record.key() != null ? record.key() : record.partition();
+            byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        // 2. One virtual thread per key, a key stops at its first failure
+        List<Future<Failure>> futures = new ArrayList<>(byKey.size());
+        for (List<Integer> indexes : byKey.values()) {
+            futures.add(executor.submit(() -> {
+                for (int index : indexes) {
+                    try {
+                        handler.accept(records.get(index).value());
+                    } catch (RuntimeException e) {
+                        return new Failure(index, e);
+                    }
+                }
+                return null;
+            }));
+        }
+        meterRegistry.summary("kafka.dispatch.keys").record(byKey.size());
+
+        // 3. Wait for every key, lowest failed index wins
+        Failure first = null;
+        for (Future<Failure> future : futures) {
+            Failure failure = await(future);
+            if (failure != null && (first == null || failure.index() < first.index())) {
+                first = failure;
+            }
+        }
+
+        if (first != null) {
+            log.warn("Dispatch failed at record {} of {}: {}", first.index(), records.size(), first.error().getMessage());
+            throw new BatchListenerFailedException(first.error().getMessage(), first.error(), first.index());
+        }
+    }
+
+    private Failure await(Future<Failure> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for dispatched records", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Dispatched record task failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+
+    private record Failure(int index, RuntimeException error) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.mhpractice.common.kafka;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the producer profile (KafkaTemplate) for a topic.
+ *
+ * Topics listed in app.kafka.producer.low-latency.topics go to the
+ * low-latency template, everything else to the high-throughput default.
+ * All records of a topic always use the same producer, so per-key ordering
+ * is unchanged.
+ */
+@Component
+public class ProducerProfileRouter {
+
+    private final KafkaTemplate<String, Object> lowLatencyKafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Set<String> lowLatencyTopics;
+
+    public ProducerProfileRouter(
+            @Qualifier("lowLatencyKafkaTemplate") KafkaTemplate<String, Object> lowLatencyKafkaTemplate,
+            @Qualifier("kafkaTemplate") KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${app.kafka.producer.low-latency.topics:}") List<String> lowLatencyTopics) {
+        this.lowLatencyKafkaTemplate = lowLatencyKafkaTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.lowLatencyTopics = lowLatencyTopics.stream()
+                .map(String::trim)
+                .filter(topic -> !topic.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public KafkaTemplate<String, Object> templateFor(String topic) {
+        return lowLatencyTopics.contains(topic) ? lowLatencyKafkaTemplate : kafkaTemplate;
+    }
+}
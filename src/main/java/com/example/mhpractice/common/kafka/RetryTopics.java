@@ -0,0 +1,139 @@
+package com.example.mhpractice.common.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Naming and timing of the non-blocking retry tiers.
+ *
+ * A record that fails on topic T is re-published (see KafkaConfig) instead of
+ * being retried in place, so the partition behind it keeps moving:
+ *
+ * T -> T.retry-1 -> T.retry-2 -> ... -> T.retry-n -> T.dlt
+ *
+ * Tier i waits initial-delay-ms * multiplier^(i-1) before re-running the
+ * record. Every record of a tier has the same delay, so waiting on the head of
+ * a tier partition never delays a record that is already due.
+ *
+ * Retried records leave their original partition, so per-key order is not
+ * kept across tiers; transfer and notification handlers are idempotent.
+ */
+@Component
+public class RetryTopics {
+
+    // Epoch millis at which the record may be re-run, set when publishing to a tier
+    public static final String DUE_AT_HEADER = "wallet-retry-due-at";
+
+    private static final String RETRY_SUFFIX = ".retry-";
+    private static final String DLT_SUFFIX = ".dlt";
+
+    private final List<Long> tierDelaysMs = new ArrayList<>();
+
+    public RetryTopics(@Value("${app.kafka.retry-topics.attempts}") int attempts,
+            @Value("${app.kafka.retry-topics.initial-delay-ms}") long initialDelayMs,
+            @Value("${app.kafka.retry-topics.multiplier}") double multiplier) {
+        double delay = initialDelayMs;
+        for (int i = 0; i < attempts; i++) {
+            tierDelaysMs.add((long) delay);
+            delay *= multiplier;
+        }
+    }
+
+    public int tierCount() {
+        return tierDelaysMs.size();
+    }
+
+    /**
+     * All retry tier topics of the given topics, e.g. for @KafkaListener(topics = ...)
+     */
+    public String[] retryTopics(String... baseTopics) {
+        List<String> topics = new ArrayList<>();
+        for (String baseTopic : baseTopics) {
+            for (int tier = 1; tier <= tierCount(); tier++) {
+                topics.add(baseTopic + RETRY_SUFFIX + tier);
+            }
+        }
+        return topics.toArray(String[]::new);
+    }
+
+    public String deadLetterTopic(String topic) {
+        return baseTopic(topic) + DLT_SUFFIX;
+    }
+
+    public String baseTopic(String topic) {
+        int retry = topic.lastIndexOf(RETRY_SUFFIX);
+        if (retry > 0) {
+            return topic.substring(0, retry);
+        }
+        return topic.endsWith(DLT_SUFFIX) ? topic.substring(0, topic.length() - DLT_SUFFIX.length()) : topic;
+    }
+
+    /**
+     * 0 for the main topic, 1..n for retry tiers
+     */
+    public int tier(String topic) {
+        int retry = topic.lastIndexOf(RETRY_SUFFIX);
+        if (retry < 0) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(topic.substring(retry + RETRY_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Where a record that failed on the given topic goes next
+     */
+    public String nextTopic(String topic) {
+        int next = tier(topic) + 1;
+        return next <= tierCount() ? baseTopic(topic) + RETRY_SUFFIX + next : deadLetterTopic(topic);
+    }
+
+    public boolean isDeadLetterTopic(String topic) {
+        return topic.endsWith(DLT_SUFFIX);
+    }
+
+    public long delayMs(String topic) {
+        int tier = tier(topic);
+        return tier > 0 && tier <= tierCount() ? tierDelaysMs.get(tier - 1) : 0L;
+    }
+
+    /**
+     * Runs the handler once the record's tier delay has elapsed. Until then the
+     * record is nacked: the container seeks back to it and pauses the partition
+     * (still polling, so no rebalance) for the remaining time.
+     *
+     * Requires AckMode.MANUAL (retryKafkaListenerContainerFactory).
+     */
+    public void runWhenDue(ConsumerRecord<?, ?> record, Acknowledgment ack, Runnable handler) {
+        long wait = dueAt(record) - System.currentTimeMillis();
+        if (wait > 0) {
+            ack.nack(Duration.ofMillis(wait));
+            return;
+        }
+        handler.run();
+        ack.acknowledge();
+    }
+
+    private long dueAt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(DUE_AT_HEADER);
+        if (header != null) {
+            try {
+                return Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+            } catch (NumberFormatException e) {
+                // fall through to the record timestamp
+            }
+        }
+        return record.timestamp() + delayMs(record.topic());
+    }
+}
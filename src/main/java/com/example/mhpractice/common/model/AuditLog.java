@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import com.example.mhpractice.features.user.models.User;
 import com.example.mhpractice.features.wallet.model.Wallet;
@@ -28,6 +30,8 @@ import lombok.NoArgsConstructor;
  * CRITICAL: This is an append-only table for compliance.
  * - NEVER update records (no @UpdateTimestamp)
  * - NEVER delete records (kept forever for legal/compliance)
+ * - Stored in monthly partitions; expired months are archived to gzip CSV
+ * by AuditPartitionManager rather than deleted
  * - Records every important event in the system
  * 
  * Used by ALL features:
@@ -49,11 +53,11 @@ public class AuditLog {
     private UUID id;
 
     /**
-     * When the event occurred
+     * When the event occurred (set when built, not when the writer inserts it)
      */
-    @CreationTimestamp
     @Column(name = "timestamp", nullable = false, updatable = false)
-    private LocalDateTime timestamp;
+    @Builder.Default
+    private LocalDateTime timestamp = LocalDateTime.now();
 
     /**
      * What action occurred
@@ -138,10 +142,11 @@ public class AuditLog {
     private String userAgent;
 
     /**
-     * Additional metadata (JSON format)
-     * Can store full snapshots, error messages, domain-specific data
+     * Additional metadata (jsonb, see AuditMetadata)
+     * Only fields not already in columns; read via AuditMetadataReader
      */
-    @Column(name = "metadata", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "metadata", columnDefinition = "jsonb")
     private String metadata;
 
     /**
@@ -0,0 +1,61 @@
+package com.example.mhpractice.common.model;
+
+import java.time.LocalDateTime;
+
+import com.example.mhpractice.features.wallet.model.Transaction;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact audit_logs.metadata payload (jsonb).
+ *
+ * Holds only what the audit_logs columns don't already have (transaction id,
+ * amount, wallets and status are columns). Short property names and no nulls
+ * keep a row's metadata at a few dozen bytes; "v" is the schema version so
+ * AuditMetadataReader can keep expanding old rows when fields are added.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuditMetadata {
+
+    public static final int CURRENT_VERSION = 1;
+
+    @JsonProperty("v")
+    @Builder.Default
+    private int version = CURRENT_VERSION;
+
+    // Sender / receiver mail at the time of the event
+    @JsonProperty("fm")
+    private String fromUserMail;
+
+    @JsonProperty("tm")
+    private String toUserMail;
+
+    @JsonProperty("cs")
+    private String creditStatus;
+
+    @JsonProperty("cr")
+    private String cancelReason;
+
+    // When the transfer record was created (audit timestamp is a column)
+    @JsonProperty("tc")
+    private LocalDateTime transactionCreatedAt;
+
+    public static AuditMetadata of(Transaction txn) {
+        return AuditMetadata.builder()
+                .fromUserMail(txn.getFromUserMail())
+                .toUserMail(txn.getToUserMail())
+                .creditStatus(txn.getCreditStatus() != null ? txn.getCreditStatus().name() : null)
+                .cancelReason(txn.getCancelReason())
+                .transactionCreatedAt(txn.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.mhpractice.common.ratelimit;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.example.mhpractice.common.exception.TooManyRequestsException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies the RateLimitRule beans (RateLimitConfig) before any
+ * controller runs, so rejected callers never take a DB connection or a
+ * BCrypt slot.
+ *
+ * Runs in the security chain right after JwtAuthenticationFilter, so USER
+ * rules see the caller; unauthenticated requests on a USER rule are keyed
+ * by IP. Rejections go through ResponseExceptionHandler (429 + Retry-After).
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<RateLimitRule> rules;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+
+    public RateLimitFilter(List<RateLimitRule> rules, TokenBucketRateLimiter rateLimiter,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver,
+            @Value("${app.rate-limit.enabled}") boolean enabled,
+            @Value("${app.rate-limit.trust-forwarded-for}") boolean trustForwardedFor) {
+        this.rules = rules;
+        this.rateLimiter = rateLimiter;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.enabled = enabled;
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+
+        for (RateLimitRule rule : rules) {
+            if (!rule.matches(path)) {
+                continue;
+            }
+
+            long retryAfterMs = rateLimiter.tryAcquire(rule, subjectOf(rule, request));
+            if (retryAfterMs > 0) {
+                long retryAfterSeconds = Math.max(1, (retryAfterMs + 999) / 1000);
+                handlerExceptionResolver.resolveException(request, response, null,
+                        new TooManyRequestsException("Too many requests, please retry later", retryAfterSeconds));
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // ================
+    // Private Methods
+    // ================
+
+    private String subjectOf(RateLimitRule rule, HttpServletRequest request) {
+        if (rule.scope() == RateLimitRule.Scope.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    // X-Forwarded-For is client-controlled, only trusted behind a proxy that sets it
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isEmpty()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.mhpractice.common.ratelimit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * One token bucket per (rule, subject): permits per periodMs, refilled
+ * continuously. Subject is the client IP or the authenticated email.
+ *
+ * permits <= 0 disables the rule.
+ */
+public record RateLimitRule(String name, PathPattern pathPattern, Scope scope, int permits, long periodMs) {
+
+    public enum Scope {
+        IP,
+        USER
+    }
+
+    public static RateLimitRule of(String name, String path, Scope scope, int permits, long periodMs) {
+        return new RateLimitRule(name, PathPatternParser.defaultInstance.parse(path), scope, permits, periodMs);
+    }
+
+    public boolean matches(PathContainer path) {
+        return permits > 0 && pathPattern.matches(path);
+    }
+}
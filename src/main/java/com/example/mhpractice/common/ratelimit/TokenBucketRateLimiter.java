@@ -0,0 +1,147 @@
+package com.example.mhpractice.common.ratelimit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.redisson.api.RScript;
+import org.redisson.api.RScript.Mode;
+import org.redisson.api.RScript.ReturnType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Distributed token bucket, one Redis hash per (rule, subject).
+ *
+ * 1. Redis: a Lua script refills the bucket from the Redis clock, takes up to
+ *    `lease` tokens and sets PEXPIRE = period, so idle subjects cost nothing.
+ *    One round-trip per decision, atomic across nodes.
+ * 2. Local pre-check: the tokens taken beyond the current request are leased
+ *    to this node and served from memory until used or the period ends. A
+ *    caller well under its limit only reaches Redis once per lease.
+ *    Leased tokens are already counted in Redis, so the limit is never
+ *    exceeded; at worst a node's unused lease is lost (under-admits).
+ *    lease = permits * local-share, so limits of a few permits always go
+ *    to Redis.
+ *
+ * Redis errors fail open (request allowed), counted as result=error.
+ */
+@Slf4j
+public class TokenBucketRateLimiter {
+
+    // ARGV: capacity, periodMs, wanted. Returns {granted, retryAfterMs}
+    private static final String TOKEN_BUCKET_SCRIPT = """
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local capacity = tonumber(ARGV[1])
+            local period = tonumber(ARGV[2])
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1]) or capacity
+            local ts = tonumber(bucket[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * capacity / period)
+            if tokens < 1 then
+                redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+                redis.call('PEXPIRE', KEYS[1], period)
+                return {0, math.ceil((1 - tokens) * period / capacity)}
+            end
+            local granted = math.min(math.floor(tokens), tonumber(ARGV[3]))
+            tokens = tokens - granted
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], period)
+            return {granted, 0}
+            """;
+
+    private final RScript script;
+    private final MeterRegistry meterRegistry;
+    private final double localShare;
+    private final int localMaxKeys;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(RedissonClient redissonClient, MeterRegistry meterRegistry,
+            double localShare, int localMaxKeys) {
+        this.script = redissonClient.getScript(StringCodec.INSTANCE);
+        this.meterRegistry = meterRegistry;
+        this.localShare = localShare;
+        this.localMaxKeys = localMaxKeys;
+        meterRegistry.gaugeMapSize("ratelimit.local.leases", List.of(), leases);
+    }
+
+    /**
+     * @return 0 if allowed, otherwise milliseconds until a token is available
+     */
+    public long tryAcquire(RateLimitRule rule, String subject) {
+        String key = "ratelimit:" + rule.name() + ":" + subject;
+
+        // 1. Local lease, no Redis
+        Lease lease = leases.get(key);
+        if (lease != null && lease.tryTake()) {
+            count(rule, "local");
+            return 0;
+        }
+
+        // 2. Redis bucket, leasing the surplus to this node
+        int wanted = Math.max(1, (int) (rule.permits() * localShare));
+        List<Object> reply;
+        try {
+            reply = script.eval(Mode.READ_WRITE, TOKEN_BUCKET_SCRIPT, ReturnType.MULTI, List.of(key),
+                    String.valueOf(rule.permits()), String.valueOf(rule.periodMs()), String.valueOf(wanted));
+        } catch (RuntimeException e) {
+            log.warn("Rate limiter unavailable, allowing request for {}: {}", key, e.getMessage());
+            count(rule, "error");
+            return 0;
+        }
+
+        long granted = ((Number) reply.get(0)).longValue();
+        if (granted == 0) {
+            count(rule, "rejected");
+            return Math.max(1, ((Number) reply.get(1)).longValue());
+        }
+
+        if (granted > 1) {
+            putLease(key, new Lease((int) granted - 1, System.nanoTime() + rule.periodMs() * 1_000_000));
+        }
+        count(rule, "redis");
+        return 0;
+    }
+
+    // ================
+    // Private Methods
+    // ================
+
+    private void putLease(String key, Lease lease) {
+        if (leases.size() >= localMaxKeys) {
+            leases.values().removeIf(Lease::isExpired);
+            if (leases.size() >= localMaxKeys) {
+                return; // Full of live leases, next requests just go to Redis
+            }
+        }
+        leases.put(key, lease);
+    }
+
+    private void count(RateLimitRule rule, String result) {
+        meterRegistry.counter("ratelimit.decisions", "rule", rule.name(), "result", result).increment();
+    }
+
+    private static final class Lease {
+
+        private final AtomicInteger remaining;
+        private final long expiresAtNanos;
+
+        private Lease(int tokens, long expiresAtNanos) {
+            this.remaining = new AtomicInteger(tokens);
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean tryTake() {
+            return !isExpired() && remaining.getAndUpdate(r -> r > 0 ? r - 1 : r) > 0;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0 || remaining.get() <= 0;
+        }
+    }
+}
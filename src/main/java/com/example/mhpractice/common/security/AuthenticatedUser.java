@@ -0,0 +1,13 @@
+package com.example.mhpractice.common.security;
+
+import java.util.UUID;
+
+/**
+ * The caller, resolved once per request by JwtAuthenticationFilter (cached in
+ * AuthenticatedUserCache) and injected into controller methods by
+ * AuthenticatedUserArgumentResolver.
+ *
+ * @param walletId null until the user verified their email (no wallet yet)
+ */
+public record AuthenticatedUser(UUID userId, UUID walletId, String email, String name) {
+}
@@ -0,0 +1,47 @@
+package com.example.mhpractice.common.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.example.mhpractice.common.exception.BusinessException;
+import com.example.mhpractice.common.exception.ErrorCode;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Injects the caller into controller methods: {@code foo(AuthenticatedUser user)}.
+ *
+ * Uses the principal JwtAuthenticationFilter already resolved (authentication
+ * details); only resolves it here if the filter could not.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final AuthenticatedUserCache authenticatedUserCache;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return AuthenticatedUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new BusinessException(ErrorCode.INVALID_TOKEN);
+        }
+
+        if (authentication.getDetails() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return authenticatedUserCache.resolve(authentication.getName());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.mhpractice.common.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.LocalCachedMapOptions.EvictionPolicy;
+import org.redisson.api.LocalCachedMapOptions.ReconnectionStrategy;
+import org.redisson.api.LocalCachedMapOptions.SyncStrategy;
+import org.redisson.api.RLocalCachedMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.mhpractice.common.exception.BusinessException;
+import com.example.mhpractice.common.exception.ErrorCode;
+import com.example.mhpractice.features.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-through cache email -> AuthenticatedUser, so controllers don't turn
+ * the JWT subject into a User and then a Wallet on every request.
+ *
+ * Two levels, same as WalletBalanceCache: a Redisson local-cached map
+ * (near cache in every node + Redis hash "user:principal:v2"). Evictions go
+ * through Redis pub/sub, so every node drops its local copy. Entries carry
+ * their cachedAt and count as a miss after ttl-ms, so a lost eviction is
+ * healed within ttl-ms (the near-cache TTL alone doesn't expire the Redis
+ * hash).
+ *
+ * Must be evicted (evictAfterCommit) whenever a cached field changes, i.e.
+ * profile updates (name). The principal holds no account status, so nothing
+ * here keeps a suspended user out. Principals without a wallet are not
+ * cached, so creating the wallet needs no eviction.
+ *
+ * Redis being down never breaks authentication, it just falls back to the DB.
+ */
+@Slf4j
+@Component
+public class AuthenticatedUserCache {
+
+    private final RLocalCachedMap<String, CachedPrincipal> principals;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long ttlMs;
+
+    public AuthenticatedUserCache(RedissonClient redissonClient, UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.principal-cache.enabled}") boolean enabled,
+            @Value("${app.auth.principal-cache.local-size}") int localSize,
+            @Value("${app.auth.principal-cache.ttl-ms}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+
+        // v2: values are CachedPrincipal, not the bare AuthenticatedUser
+        this.principals = redissonClient.getLocalCachedMap("user:principal:v2",
+                new TypedJsonJacksonCodec(String.class, CachedPrincipal.class),
+                LocalCachedMapOptions.<String, CachedPrincipal>defaults()
+                        .cacheSize(localSize)
+                        .evictionPolicy(EvictionPolicy.LRU)
+                        .timeToLive(ttlMs, TimeUnit.MILLISECONDS)
+                        .reconnectionStrategy(ReconnectionStrategy.CLEAR)
+                        .syncStrategy(SyncStrategy.INVALIDATE));
+    }
+
+    public AuthenticatedUser resolve(String email) {
+        if (enabled) {
+            try {
+                CachedPrincipal cached = principals.get(email);
+                if (cached != null && System.currentTimeMillis() - cached.getCachedAt() < ttlMs) {
+                    meterRegistry.counter("auth.principal.cache", "result", "hit").increment();
+                    return cached.getUser();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Principal cache read failed, falling back to DB: {}", e.getMessage());
+            }
+            meterRegistry.counter("auth.principal.cache", "result", "miss").increment();
+        }
+
+        AuthenticatedUser user = userRepository.findAuthenticatedUserByEmail(email)
+                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+
+        if (enabled && user.walletId() != null) {
+            try {
+                principals.fastPut(email, new CachedPrincipal(user, System.currentTimeMillis()));
+            } catch (RuntimeException e) {
+                log.warn("Principal cache write failed: {}", e.getMessage());
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Evict once the surrounding DB transaction has committed, so no node can
+     * re-cache the old principal. Runs immediately outside a transaction.
+     */
+    public void evictAfterCommit(String email) {
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email);
+                }
+            });
+        } else {
+            evict(email);
+        }
+    }
+
+    private void evict(String email) {
+        try {
+            principals.fastRemove(email);
+        } catch (RuntimeException e) {
+            log.warn("Principal cache eviction failed for {}: {}", email, e.getMessage());
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachedPrincipal {
+        private AuthenticatedUser user;
+        private long cachedAt;
+    }
+}
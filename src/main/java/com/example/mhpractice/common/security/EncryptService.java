@@ -7,6 +7,8 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.util.Base64;
 
@@ -18,6 +20,16 @@ public class EncryptService {
     private static final String EncryptionAlgorithm = "AES/GCM/NoPadding";
     private static final SecureRandom secureRandom = new SecureRandom();
 
+    // Cipher.getInstance does a provider lookup, so each thread keeps one
+    // instance and re-inits it per call (a Cipher is not thread-safe)
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(EncryptionAlgorithm);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM not available", e);
+        }
+    });
+
     // Encrypts the given plain text using AES-GCM algorithm and returns the Base64
     // encoded string.
     public String encryptUrlSafe(String plainText, SecretKey secretKey) {
@@ -27,15 +39,15 @@ public class EncryptService {
             byte[] iv = new byte[GCM_IV_LENGTH];
             secureRandom.nextBytes(iv);
 
-            // Create cipher instance
-            Cipher cipher = Cipher.getInstance(EncryptionAlgorithm);
+            // Per-thread cipher instance
+            Cipher cipher = CIPHER.get();
 
             // Create GCM parameter spec (specify auth tag length and IV)
             GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
             cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
 
             // Encrypt plain text into cipherText
-            byte[] cipherText = cipher.doFinal(plainText.getBytes());
+            byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
 
             // Combine cipherText and IV, so later decryption can use the same IV
             ByteBuffer cipherTextAndIV = ByteBuffer.allocate(iv.length + cipherText.length)
@@ -55,26 +67,23 @@ public class EncryptService {
             // Decode Base64 encoded string
             byte[] cipherTextAndIV = Base64.getDecoder().decode(encryptedText);
 
-            // Extract IV from the end of the cipherTextAndIV
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            System.arraycopy(cipherTextAndIV, cipherTextAndIV.length - GCM_IV_LENGTH, iv, 0, GCM_IV_LENGTH);
-
-            // Extract cipherText from the start of the cipherTextAndIV
-            byte[] cipherText = new byte[cipherTextAndIV.length - GCM_IV_LENGTH];
-            System.arraycopy(cipherTextAndIV, 0, cipherText, 0, cipherText.length);
+            // IV is the last GCM_IV_LENGTH bytes, cipherText the rest
+            // (used in place, no copies)
+            int cipherTextLength = cipherTextAndIV.length - GCM_IV_LENGTH;
 
-            // Create cipher instance
-            Cipher cipher = Cipher.getInstance(EncryptionAlgorithm);
+            // Per-thread cipher instance
+            Cipher cipher = CIPHER.get();
 
             // Create GCM parameter spec (specify auth tag length and IV)
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
+            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, cipherTextAndIV, cipherTextLength,
+                    GCM_IV_LENGTH);
             cipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
 
             // Decrypt cipherText into plainText
-            byte[] plainText = cipher.doFinal(cipherText);
+            byte[] plainText = cipher.doFinal(cipherTextAndIV, 0, cipherTextLength);
 
             // Return plainText as String
-            return new String(plainText);
+            return new String(plainText, StandardCharsets.UTF_8);
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to decrypt text.");
@@ -8,6 +8,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.mhpractice.common.exception.BusinessException;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -22,6 +24,7 @@ import lombok.extern.slf4j.Slf4j;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -31,8 +34,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Get the token from the cookie
         if (request.getCookies() != null) {
             for (Cookie cookie : request.getCookies()) {
-                log.debug("Cookie found: {} = {}", cookie.getName(),
-                        cookie.getValue().substring(0, Math.min(20, cookie.getValue().length())) + "...");
+                if (log.isDebugEnabled()) { // avoid building the preview string per cookie
+                    log.debug("Cookie found: {} = {}", cookie.getName(),
+                            cookie.getValue().substring(0, Math.min(20, cookie.getValue().length())) + "...");
+                }
                 if ("auth_token".equals(cookie.getName())) {
                     token = cookie.getValue();
                 }
@@ -43,12 +48,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (token != null) {
             log.debug("Token found, validating...");
-            if (jwtTokenProvider.validateToken(token)) {
-                String email = jwtTokenProvider.getEmailFromToken(token);
+            // One decrypt + verify (or a cache hit) yields both validity and claims
+            JwtClaims claims = jwtTokenProvider.validateAndExtract(token).orElse(null);
+            if (claims != null) {
+                String email = claims.email();
                 log.debug("Token valid for user: {}", email);
                 // Create authentication token, later can use it to get user details
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(email,
                         null, Collections.emptyList());
+                // Resolve the caller (userId + walletId) once, controllers get it
+                // through AuthenticatedUserArgumentResolver
+                try {
+                    authenticationToken.setDetails(authenticatedUserCache.resolve(email));
+                } catch (BusinessException e) {
+                    log.debug("No principal for {}: {}", email, e.getMessage());
+                }
                 // Set token into security context, so that it can be used by other components
                 // This security context is not globally, is for per thread
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -0,0 +1,17 @@
+package com.example.mhpractice.common.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a validated token, see JwtTokenProvider.validateAndExtract.
+ *
+ * @param email     subject
+ * @param tokenType ACCESS | REFRESH
+ * @param expiresAt null when the token has no exp claim
+ */
+public record JwtClaims(String email, String tokenType, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.mhpractice.common.security;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Base64;
+import java.util.Optional;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
@@ -43,10 +44,16 @@ public class JwtTokenProvider {
     @Autowired
     private EncryptService encryptService;
 
+    @Autowired
+    private TokenClaimsCache tokenClaimsCache;
+
     // Converted keys (initialized in @PostConstruct)
     private byte[] secretKeyBytes;
     private SecretKey encryptionKey;
 
+    // MACVerifier is thread-safe, so one instance serves every request
+    private JWSVerifier verifier;
+
     /**
      * Convert Base64 strings to proper key objects after Spring injects values
      */
@@ -64,6 +71,12 @@ public class JwtTokenProvider {
         // Convert AES encryption key
         byte[] encryptionKeyBytes = Base64.getDecoder().decode(base64EncryptionKey);
         this.encryptionKey = new SecretKeySpec(encryptionKeyBytes, "AES");
+
+        try {
+            this.verifier = new MACVerifier(secretKeyBytes);
+        } catch (JOSEException e) {
+            throw new IllegalArgumentException("Invalid JWT secret", e);
+        }
     }
 
     public String generateAccessToken(String email) {
@@ -106,59 +119,64 @@ public class JwtTokenProvider {
         }
     }
 
-    public boolean validateToken(String encodedToken) {
-        try {
+    /**
+     * Validate the token and return its claims, in one pass:
+     * 1. Cache hit (digest of a previously validated, unexpired token) -> done.
+     * 2. Decrypt, parse, verify signature, check expiry, extract claims.
+     * 3. Cache the claims until the token expires.
+     *
+     * Empty when the token is invalid or expired.
+     */
+    public Optional<JwtClaims> validateAndExtract(String encodedToken) {
+        JwtClaims cached = tokenClaimsCache.get(encodedToken);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
 
+        try {
             // Decrypt the unreadable jwt token
             String compactToken = encryptService.decryptUrlSafe(encodedToken, encryptionKey);
-            log.debug("Decrypted token successfully");
 
             // Parse the compact jwt token
             SignedJWT parsedJwt = SignedJWT.parse(compactToken);
-            log.debug("Parsed JWT successfully");
 
             // Verify the signature
-            JWSVerifier verifier = new MACVerifier(secretKeyBytes);
             if (!parsedJwt.verify(verifier)) {
                 log.debug("Signature verification failed");
-                return false;
+                return Optional.empty();
             }
-            log.debug("Signature verified");
 
             // Check expiration
-            Date expiration = parsedJwt.getJWTClaimsSet().getExpirationTime();
-            if (expiration != null && expiration.before(new Date())) {
-                log.debug("Token expired. Expiration: {}, Now: {}", expiration, new Date());
-                return false;
+            JWTClaimsSet claimsSet = parsedJwt.getJWTClaimsSet();
+            Date expiration = claimsSet.getExpirationTime();
+            JwtClaims claims = new JwtClaims(claimsSet.getSubject(), claimsSet.getStringClaim("type"),
+                    expiration != null ? expiration.toInstant() : null);
+            if (claims.isExpired(Instant.now())) {
+                log.debug("Token expired. Expiration: {}", expiration);
+                return Optional.empty();
             }
-            log.debug("Token not expired");
 
             // Check token type (ACCESS vs REFRESH)
-            // String realTokenType = parsedJwt.getJWTClaimsSet().getStringClaim("type");
-            // if (tokenType != null && !tokenType.equals(realTokenType)) {
-            // log.warn("Invalid token type. Expected: {}, Got: {}", realTokenType,
-            // tokenType);
-            // return false;
+            // if (!"ACCESS".equals(claims.tokenType())) {
+            // return Optional.empty();
             // }
 
-            return true;
+            tokenClaimsCache.put(encodedToken, claims);
+            return Optional.of(claims);
 
         } catch (Exception e) {
             log.debug("Token validation exception: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
-    public String getEmailFromToken(String encodedToken) {
-        try {
-            String decryptedJwt = encryptService.decryptUrlSafe(encodedToken, encryptionKey);
-
-            SignedJWT parsedJwt = SignedJWT.parse(decryptedJwt);
-
-            return parsedJwt.getJWTClaimsSet().getSubject();
+    public boolean validateToken(String encodedToken) {
+        return validateAndExtract(encodedToken).isPresent();
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to get email from token.");
-        }
+    public String getEmailFromToken(String encodedToken) {
+        return validateAndExtract(encodedToken)
+                .map(JwtClaims::email)
+                .orElseThrow(() -> new RuntimeException("Failed to get email from token."));
     }
 }
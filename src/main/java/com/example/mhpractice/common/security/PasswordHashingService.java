@@ -0,0 +1,166 @@
+package com.example.mhpractice.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.example.mhpractice.common.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The application's PasswordEncoder, with hashing off the request thread.
+ *
+ * 1. BCrypt runs on a small dedicated pool (threads) with a bounded queue
+ *    (queue-capacity), so a login storm uses at most that many cores and
+ *    Tomcat workers; everything beyond is rejected at once with 429
+ *    (TooManyRequestsException) instead of piling up.
+ * 2. Cost is app.auth.password.bcrypt-strength. Hashes with a lower cost
+ *    report upgradeEncoding() = true, so DaoAuthenticationProvider re-hashes
+ *    on the next successful login (CustomUserDetailsService.updatePassword).
+ * 3. OTPs live for minutes, so they use a keyed HMAC-SHA256 instead of BCrypt
+ *    (hashOtp / matchesOtp): microseconds, and useless without the key.
+ *
+ * Argon2 would need BouncyCastle on the classpath, which this build does not
+ * ship, so upgrades go to a higher BCrypt cost.
+ */
+@Component
+public class PasswordHashingService implements PasswordEncoder {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer hashTimer;
+    private final SecretKeySpec otpKey;
+    private final long waitMs;
+
+    public PasswordHashingService(MeterRegistry meterRegistry,
+            @Value("${app.auth.password.bcrypt-strength}") int bcryptStrength,
+            @Value("${app.auth.password.threads}") int threads,
+            @Value("${app.auth.password.queue-capacity}") int queueCapacity,
+            @Value("${app.auth.password.wait-ms}") long waitMs,
+            @Value("${app.auth.otp.hmac-key}") String base64OtpKey) {
+        this.meterRegistry = meterRegistry;
+        this.bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        this.waitMs = waitMs;
+        byte[] otpKeyBytes = Base64.getDecoder().decode(base64OtpKey);
+        if (otpKeyBytes.length < 32) {
+            throw new IllegalStateException("app.auth.otp.hmac-key must be at least 32 bytes (base64)");
+        }
+        this.otpKey = new SecretKeySpec(otpKeyBytes, HMAC_ALGORITHM);
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = meterRegistry.timer("auth.password.hash.time");
+        meterRegistry.gauge("auth.password.hash.queue", executor, e -> e.getQueue().size());
+    }
+
+    // =====================================================================
+    // Passwords (BCrypt, bounded pool)
+    // =====================================================================
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return offload(() -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return offload(() -> bcrypt.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return bcrypt.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T offload(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.recordCallable(hashing));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("auth.password.hash.rejected").increment();
+            throw new TooManyRequestsException("Authentication is busy, please retry", 1);
+        }
+
+        try {
+            return future.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("auth.password.hash.rejected").increment();
+            throw new TooManyRequestsException("Authentication is busy, please retry", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // =====================================================================
+    // OTPs (keyed HMAC, inline)
+    // =====================================================================
+
+    /**
+     * HMAC-SHA256 over purpose + email + code, so a hash is only valid for the
+     * user and purpose it was issued for.
+     */
+    public String hashOtp(String otpCode, String email, String purpose) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(otpKey);
+            byte[] digest = mac.doFinal((purpose + '|' + email + '|' + otpCode).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("OTP hashing failed", e);
+        }
+    }
+
+    /**
+     * Constant-time check against a hashOtp() value.
+     */
+    public boolean matchesOtp(String otpCode, String email, String purpose, String storedHash) {
+        byte[] expected = storedHash.getBytes(StandardCharsets.UTF_8);
+        byte[] actual = hashOtp(otpCode, email, purpose).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
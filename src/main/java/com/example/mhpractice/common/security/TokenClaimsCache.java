@@ -0,0 +1,105 @@
+package com.example.mhpractice.common.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded LRU cache: SHA-256(token) -> validated claims.
+ *
+ * Only tokens that passed decrypt + signature + expiry checks are stored,
+ * keyed by digest so raw tokens are never kept in memory. Entries are dropped
+ * once the token expires, so a hit is as good as a full validation.
+ *
+ * Split into STRIPES access-ordered maps to keep lock contention low; each
+ * stripe holds max-entries / STRIPES entries.
+ */
+@Component
+public class TokenClaimsCache {
+
+    private static final int STRIPES = 16;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Map<ByteBuffer, JwtClaims>[] stripes;
+    private final boolean enabled;
+    private final Counter hits;
+    private final Counter misses;
+
+    @SuppressWarnings("unchecked")
+    public TokenClaimsCache(MeterRegistry meterRegistry,
+            @Value("${app.jwt.claims-cache.enabled}") boolean enabled,
+            @Value("${app.jwt.claims-cache.max-entries}") int maxEntries) {
+        this.enabled = enabled;
+        this.hits = meterRegistry.counter("auth.token.cache", "result", "hit");
+        this.misses = meterRegistry.counter("auth.token.cache", "result", "miss");
+
+        int perStripe = Math.max(1, maxEntries / STRIPES);
+        this.stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ByteBuffer, JwtClaims> eldest) {
+                    return size() > perStripe;
+                }
+            };
+        }
+    }
+
+    public JwtClaims get(String token) {
+        if (!enabled) {
+            return null;
+        }
+
+        ByteBuffer key = digest(token);
+        Map<ByteBuffer, JwtClaims> stripe = stripeFor(key);
+        JwtClaims claims;
+        synchronized (stripe) {
+            claims = stripe.get(key);
+            if (claims != null && claims.isExpired(Instant.now())) {
+                stripe.remove(key);
+                claims = null;
+            }
+        }
+
+        (claims != null ? hits : misses).increment();
+        return claims;
+    }
+
+    public void put(String token, JwtClaims claims) {
+        if (!enabled) {
+            return;
+        }
+
+        ByteBuffer key = digest(token);
+        Map<ByteBuffer, JwtClaims> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, claims);
+        }
+    }
+
+    private ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private Map<ByteBuffer, JwtClaims> stripeFor(ByteBuffer key) {
+        // Digest bytes are uniformly distributed, the first byte is enough
+        return stripes[(key.get(0) & 0xFF) % STRIPES];
+    }
+}
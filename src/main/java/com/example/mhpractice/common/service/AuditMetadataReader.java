@@ -0,0 +1,102 @@
+package com.example.mhpractice.common.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.mhpractice.common.model.AuditLog;
+import com.example.mhpractice.common.model.AuditMetadata;
+import com.example.mhpractice.common.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reader API for investigations: expands audit rows (columns + compact
+ * metadata) back into readable, fully named fields.
+ *
+ * Understands both formats stored in audit_logs.metadata:
+ * - AuditMetadata (has "v")
+ * - legacy full Transaction JSON written before the compact format
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditMetadataReader {
+
+    private final AuditLogRepository auditLogRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Full audit trail of a transfer, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAuditTrail(String transactionId) {
+        return auditLogRepository.findByTransactionIdOrderByTimestampAsc(transactionId).stream()
+                .map(this::expand)
+                .toList();
+    }
+
+    public Map<String, Object> expand(AuditLog auditLog) {
+        Map<String, Object> expanded = new LinkedHashMap<>();
+        expanded.put("id", auditLog.getId());
+        expanded.put("timestamp", auditLog.getTimestamp());
+        expanded.put("action", auditLog.getAction());
+        expanded.put("transactionId", auditLog.getTransactionId());
+        expanded.put("fromWalletId", auditLog.getFromWallet() != null ? auditLog.getFromWallet().getId() : null);
+        expanded.put("toWalletId", auditLog.getToWallet() != null ? auditLog.getToWallet().getId() : null);
+        expanded.put("amount", auditLog.getAmount());
+        expanded.put("status", auditLog.getStatus());
+        expanded.put("severity", auditLog.getSeverity());
+        expanded.put("description", auditLog.getDescription());
+
+        AuditMetadata metadata = read(auditLog.getMetadata());
+        if (metadata != null) {
+            expanded.put("metadataVersion", metadata.getVersion());
+            expanded.put("fromUserMail", metadata.getFromUserMail());
+            expanded.put("toUserMail", metadata.getToUserMail());
+            expanded.put("creditStatus", metadata.getCreditStatus());
+            expanded.put("cancelReason", metadata.getCancelReason());
+            expanded.put("transactionCreatedAt", metadata.getTransactionCreatedAt());
+        }
+        return expanded;
+    }
+
+    public AuditMetadata read(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (node.has("v")) {
+                return objectMapper.treeToValue(node, AuditMetadata.class);
+            }
+
+            // Legacy: full Transaction JSON, version 0
+            return AuditMetadata.builder()
+                    .version(0)
+                    .fromUserMail(text(node, "fromUserMail"))
+                    .toUserMail(text(node, "toUserMail"))
+                    .creditStatus(text(node, "creditStatus"))
+                    .cancelReason(text(node, "cancelReason"))
+                    .transactionCreatedAt(node.hasNonNull("createdAt")
+                            ? objectMapper.treeToValue(node.get("createdAt"), LocalDateTime.class)
+                            : null)
+                    .build();
+        } catch (Exception e) {
+            log.warn("Unreadable audit metadata: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+}
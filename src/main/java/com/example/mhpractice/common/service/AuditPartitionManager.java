@@ -0,0 +1,259 @@
+package com.example.mhpractice.common.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the monthly partitions of audit_logs (see V7 migration).
+ *
+ * 1. Pre-creates partitions for the current month + months-ahead, so inserts
+ * never hit a missing range.
+ * 2. Partitions older than retention-months are detached, streamed to
+ * {archive-dir}/audit_logs_yYYYYmMM.csv.gz and dropped. The archive is
+ * written to a temp file and moved into place before the DROP, so a crash
+ * never loses a month (the detached table is simply archived again).
+ *
+ * Every instance runs the cron; a Postgres advisory lock lets only one of
+ * them maintain partitions at a time, the others skip the run. Partitions
+ * are also created on startup: there is no DEFAULT partition, so inserts
+ * fail once the cron hasn't run for longer than months-ahead.
+ */
+@Slf4j
+@Service
+public class AuditPartitionManager {
+
+    private static final String PARENT = "audit_logs";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+    private static final long MAINTENANCE_LOCK_KEY = 0x6175646974L; // "audit"
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.audit.partition.months-ahead}")
+    private int monthsAhead;
+
+    @Value("${app.audit.partition.retention-months}")
+    private int retentionMonths;
+
+    @Value("${app.audit.partition.archive-dir}")
+    private Path archiveDir;
+
+    public AuditPartitionManager(DataSource dataSource, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        // Fetch size only streams (server-side cursor) inside a transaction
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void maintain() {
+        withMaintenanceLock(() -> {
+            createFuturePartitions();
+            archiveExpiredPartitions();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartitionsOnStartup() {
+        try {
+            withMaintenanceLock(this::createFuturePartitions);
+        } catch (Exception e) {
+            log.error("Failed to create audit partitions on startup", e);
+        }
+    }
+
+    public void createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partitionName(month), PARENT, month.atDay(1), month.plusMonths(1).atDay(1)));
+        }
+    }
+
+    public void archiveExpiredPartitions() {
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+
+        for (String partition : listPartitions()) {
+            YearMonth month = parseMonth(partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+
+            try {
+                archive(partition, true);
+            } catch (Exception e) {
+                log.error("Failed to archive audit partition {}", partition, e);
+                meterRegistry.counter("audit.partition.archive", "result", "failed").increment();
+            }
+        }
+
+        // Left detached by an earlier crash between DETACH and DROP
+        for (String orphan : listDetachedPartitions()) {
+            try {
+                archive(orphan, false);
+            } catch (Exception e) {
+                log.error("Failed to archive detached audit partition {}", orphan, e);
+                meterRegistry.counter("audit.partition.archive", "result", "failed").increment();
+            }
+        }
+    }
+
+    private void archive(String partition, boolean attached) throws IOException {
+        if (attached) {
+            jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", PARENT, partition));
+        }
+
+        Files.createDirectories(archiveDir);
+        Path target = archiveDir.resolve(partition + ".csv.gz");
+        Path tmp = archiveDir.resolve(partition + ".csv.gz.tmp");
+
+        long rows;
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            rows = writeCsv(partition, writer);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        jdbcTemplate.execute("DROP TABLE " + partition);
+
+        meterRegistry.counter("audit.partition.archive", "result", "archived").increment();
+        log.info("Archived audit partition {} ({} rows) to {}", partition, rows, target);
+    }
+
+    private long writeCsv(String partition, Writer writer) {
+        long[] rows = { 0 };
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                "SELECT * FROM " + partition + " ORDER BY timestamp, id",
+                rs -> {
+                    try {
+                        ResultSetMetaData meta = rs.getMetaData();
+                        if (rows[0] == 0) {
+                            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                                writer.write(i > 1 ? "," : "");
+                                writer.write(meta.getColumnName(i));
+                            }
+                            writer.write('\n');
+                        }
+                        for (int i = 1; i <= meta.getColumnCount(); i++) {
+                            writer.write(i > 1 ? "," : "");
+                            writer.write(csv(rs.getString(i)));
+                        }
+                        writer.write('\n');
+                        rows[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+        return rows[0];
+    }
+
+    // Session-level lock held on its own connection, so it spans the DETACH,
+    // archive and DROP statements (each on a pooled connection) and is
+    // released by Postgres if this instance dies mid-run
+    private void withMaintenanceLock(Runnable work) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tryAdvisoryLock(connection)) {
+                log.info("Audit partition maintenance running on another instance, skipped");
+                return;
+            }
+            try {
+                work.run();
+            } finally {
+                try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    unlock.setLong(1, MAINTENANCE_LOCK_KEY);
+                    unlock.execute();
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Audit partition maintenance lock failed", e);
+        }
+    }
+
+    private static boolean tryAdvisoryLock(Connection connection) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            lock.setLong(1, MAINTENANCE_LOCK_KEY);
+            try (ResultSet rs = lock.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i"
+                        + " JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " JOIN pg_class p ON p.oid = i.inhparent"
+                        + " WHERE p.relname = ? ORDER BY c.relname",
+                String.class, PARENT);
+    }
+
+    private List<String> listDetachedPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_class c"
+                        + " WHERE c.relname ~ '^audit_logs_y[0-9]{4}m[0-9]{2}$' AND c.relkind = 'r'"
+                        + " AND NOT c.relispartition",
+                String.class);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARENT + "_" + month.atDay(1).format(SUFFIX);
+    }
+
+    // audit_logs_y2025m01 -> 2025-01, null for anything else
+    private static YearMonth parseMonth(String partition) {
+        try {
+            return YearMonth.from(LocalDate.parse(partition.substring(PARENT.length() + 1) + "01",
+                    DateTimeFormatter.ofPattern("'y'yyyy'm'MMdd")));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
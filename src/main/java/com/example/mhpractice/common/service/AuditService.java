@@ -5,11 +5,13 @@ import java.util.UUID;
 import org.springframework.stereotype.Service;
 
 import com.example.mhpractice.common.model.AuditLog;
-import com.example.mhpractice.common.repository.AuditLogRepository;
+import com.example.mhpractice.common.model.AuditMetadata;
 import com.example.mhpractice.features.user.models.User;
+import com.example.mhpractice.features.wallet.event.TransferRollbackEvent;
+import com.example.mhpractice.features.wallet.event.TransferSuccessEvent;
 import com.example.mhpractice.features.wallet.model.Transaction;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.mhpractice.features.wallet.model.Wallet;
+import com.example.mhpractice.features.wallet.repository.WalletRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,14 +26,17 @@ import lombok.extern.slf4j.Slf4j;
  * - Dispute resolution
  * - Security analysis
  * - Business analytics
+ *
+ * Records are handed to AuditWriter, which inserts them inline or batches
+ * them in the background depending on app.audit.durability.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuditService {
 
-    private final AuditLogRepository auditLogRepository;
-    private final ObjectMapper objectMapper;
+    private final AuditWriter auditWriter;
+    private final WalletRepository walletRepository;
 
     public void logTopUp(Transaction txn) {
         try {
@@ -43,10 +48,9 @@ public class AuditService {
                     .status(txn.getStatus().toString())
                     .severity("LOW")
                     .description(String.format("User top up of %s", txn.getAmount()))
-                    .metadata(toJson(txn))
                     .build();
 
-            auditLogRepository.save(auditLog);
+            auditWriter.write(auditLog, AuditMetadata.of(txn));
             log.info("Audit: TOP_UP - txn={}", txn.getTransactionId());
 
         } catch (Exception e) {
@@ -71,10 +75,9 @@ public class AuditService {
                     .severity("MEDIUM")
                     .ipAddress(ipAddress)
                     .description(String.format("User initiated transfer of %s", txn.getAmount()))
-                    .metadata(toJson(txn))
                     .build();
 
-            auditLogRepository.save(auditLog);
+            auditWriter.write(auditLog, AuditMetadata.of(txn));
             log.info("Audit: TRANSFER_INITIATED - txn={}", txn.getTransactionId());
 
         } catch (Exception e) {
@@ -98,7 +101,7 @@ public class AuditService {
                     .description(String.format("Froze %s in sender wallet", txn.getAmount()))
                     .build();
 
-            auditLogRepository.save(auditLog);
+            auditWriter.write(auditLog);
             log.debug("Audit: BALANCE_FROZEN - txn={}", txn.getTransactionId());
 
         } catch (Exception e) {
@@ -121,7 +124,7 @@ public class AuditService {
                     .description(String.format("Credited %s to receiver wallet (unreleased)", txn.getAmount()))
                     .build();
 
-            auditLogRepository.save(auditLog);
+            auditWriter.write(auditLog);
             log.debug("Audit: BALANCE_CREDITED - txn={}", txn.getTransactionId());
 
         } catch (Exception e) {
@@ -130,54 +133,60 @@ public class AuditService {
     }
 
     /**
-     * Log transfer success
+     * Log transfer success (from the event, no transaction lookup)
      */
-    public void logTransferSuccess(Transaction txn) {
+    public void logTransferSuccess(TransferSuccessEvent event) {
         try {
             AuditLog auditLog = AuditLog.builder()
                     .action("TRANSFER_SUCCESS")
-                    .transactionId(txn.getTransactionId())
-                    .fromWallet(txn.getFromWallet())
-                    .toWallet(txn.getToWallet())
-                    .amount(txn.getAmount())
+                    .transactionId(event.getTransactionId())
+                    .fromWallet(walletRef(event.getFromWalletId()))
+                    .toWallet(walletRef(event.getToWalletId()))
+                    .amount(event.getAmount())
                     .status("SUCCESS")
                     .severity("LOW")
-                    .description(String.format("Transfer completed successfully: %s", txn.getAmount()))
-                    .metadata(toJson(txn))
+                    .description(String.format("Transfer completed successfully: %s", event.getAmount()))
                     .build();
 
-            auditLogRepository.save(auditLog);
-            log.info("Audit: TRANSFER_SUCCESS - txn={}", txn.getTransactionId());
+            auditWriter.write(auditLog, AuditMetadata.builder()
+                    .fromUserMail(event.getFromUserMail())
+                    .toUserMail(event.getToUserMail())
+                    .creditStatus("SUCCESS")
+                    .build());
+            log.info("Audit: TRANSFER_SUCCESS - txn={}", event.getTransactionId());
 
         } catch (Exception e) {
-            log.error("Failed to create audit log for transfer success: {}", txn.getTransactionId(), e);
+            log.error("Failed to create audit log for transfer success: {}", event.getTransactionId(), e);
         }
     }
 
     /**
      * Log transfer rollback (HIGH severity - needs investigation!)
      */
-    public void logRollback(Transaction txn) {
+    public void logRollback(TransferRollbackEvent event) {
         try {
             AuditLog auditLog = AuditLog.builder()
                     .action("TRANSFER_ROLLBACK")
-                    .transactionId(txn.getTransactionId())
-                    .fromWallet(txn.getFromWallet())
-                    .toWallet(txn.getToWallet())
-                    .amount(txn.getAmount())
+                    .transactionId(event.getTransactionId())
+                    .fromWallet(walletRef(event.getFromWalletId()))
+                    .toWallet(walletRef(event.getToWalletId()))
+                    .amount(event.getAmount())
                     .status("CANCELLED")
                     .severity("HIGH") // Rollbacks are important!
                     .description(String.format("Transfer rolled back: %s - Reason: %s",
-                            txn.getAmount(), txn.getCancelReason()))
-                    .metadata(toJson(txn))
+                            event.getAmount(), event.getReason()))
                     .build();
 
-            auditLogRepository.save(auditLog);
+            auditWriter.write(auditLog, AuditMetadata.builder()
+                    .fromUserMail(event.getFromUserMail())
+                    .toUserMail(event.getToUserMail())
+                    .cancelReason(event.getReason())
+                    .build());
             log.warn("Audit: TRANSFER_ROLLBACK - txn={}, reason={}",
-                    txn.getTransactionId(), txn.getCancelReason());
+                    event.getTransactionId(), event.getReason());
 
         } catch (Exception e) {
-            log.error("Failed to create audit log for rollback: {}", txn.getTransactionId(), e);
+            log.error("Failed to create audit log for rollback: {}", event.getTransactionId(), e);
         }
     }
 
@@ -194,7 +203,7 @@ public class AuditService {
                     .description("Transfer failed: " + reason)
                     .build();
 
-            auditLogRepository.save(auditLog);
+            auditWriter.write(auditLog);
             log.warn("Audit: TRANSFER_FAILED - txn={}, reason={}", transactionId, reason);
 
         } catch (Exception e) {
@@ -203,14 +212,9 @@ public class AuditService {
     }
 
     /**
-     * Helper: Convert object to JSON for metadata storage
+     * Helper: FK-only wallet reference, never loads the row
      */
-    private String toJson(Object obj) {
-        try {
-            return objectMapper.writeValueAsString(obj);
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to serialize object to JSON: {}", e.getMessage());
-            return "{}";
-        }
+    private Wallet walletRef(UUID walletId) {
+        return walletId != null ? walletRepository.getReferenceById(walletId) : null;
     }
 }
@@ -0,0 +1,308 @@
+package com.example.mhpractice.common.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.mhpractice.common.model.AuditLog;
+import com.example.mhpractice.common.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Audit pipeline behind AuditService.
+ *
+ * Durability modes (app.audit.durability):
+ * - SYNC: insert inline in the caller's transaction (audit rolls back with it)
+ * - ASYNC: buffer after commit, batch-insert in the background. When the
+ * buffer is full the caller inserts inline instead; a failed batch is retried
+ * with exponential backoff (retry-attempts), then inserted row by row so only
+ * rows that still fail are dropped (audit.dropped). The buffer is drained on
+ * shutdown, but it lives in memory: a crash loses up to buffer-size
+ * committed records. Use SYNC where that is not acceptable.
+ * - BEST_EFFORT: like ASYNC, but records are dropped when the buffer is full
+ * (counted in audit.dropped), so callers never pay for audit I/O.
+ *
+ * The buffer is a lock-free queue bounded by a CAS-reserved slot counter;
+ * one writer thread drains it in batches of batch-size with Hibernate JDBC
+ * batching (AuditLog ids are client-generated UUIDs).
+ */
+@Slf4j
+@Component
+public class AuditWriter {
+
+    public enum Durability {
+        SYNC,
+        ASYNC,
+        BEST_EFFORT
+    }
+
+    private final AuditLogRepository auditLogRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Queue<PendingAudit> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private Timer flushTimer;
+
+    @Value("${app.audit.durability}")
+    private Durability durability;
+
+    @Value("${app.audit.buffer-size}")
+    private int bufferSize;
+
+    @Value("${app.audit.batch-size}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.retry-attempts}")
+    private int retryAttempts;
+
+    @Value("${app.audit.retry-backoff-ms}")
+    private long retryBackoffMs;
+
+    // Failed batch, retried before new records; guarded by flush()
+    private List<AuditLog> retryBatch;
+    private int retryCount;
+    private long retryAtNanos;
+
+    public AuditWriter(AuditLogRepository auditLogRepository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.auditLogRepository = auditLogRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        // REQUIRES_NEW: the inline overflow insert runs in afterCommit, where the
+        // caller's committed EntityManager is still bound and would be joined
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void start() {
+        meterRegistry.gauge("audit.queue.depth", size);
+        flushTimer = Timer.builder("audit.flush.time")
+                .description("Time to batch-insert one batch of audit logs")
+                .register(meterRegistry);
+
+        if (durability == Durability.SYNC) {
+            return;
+        }
+
+        running = true;
+        writerThread = Thread.ofPlatform().name("audit-writer").daemon().start(this::runWriter);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Whatever the writer didn't get to, bounded so a dead DB can't hang shutdown
+        int maxRounds = bufferSize / batchSize + retryAttempts + 1;
+        for (int round = 0; round < maxRounds && hasPending(); round++) {
+            flush(true);
+        }
+        if (hasPending()) {
+            int lost = size.get() + (retryBatch != null ? retryBatch.size() : 0);
+            meterRegistry.counter("audit.dropped").increment(lost);
+            log.error("Audit writer stopped with {} records unwritten", lost);
+        }
+    }
+
+    /**
+     * @param metadata usually an AuditMetadata; serialized to JSON by the
+     *                 writer (off the caller thread in async modes), must not
+     *                 be mutated afterwards
+     */
+    public void write(AuditLog auditLog, Object metadata) {
+        PendingAudit pending = new PendingAudit(auditLog, metadata);
+
+        if (durability == Durability.SYNC) {
+            auditLogRepository.save(toEntity(pending));
+            return;
+        }
+
+        // Only audit what actually committed, same as SYNC
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(pending);
+                }
+            });
+        } else {
+            enqueue(pending);
+        }
+    }
+
+    public void write(AuditLog auditLog) {
+        write(auditLog, null);
+    }
+
+    private void enqueue(PendingAudit pending) {
+        if (reserveSlot()) {
+            buffer.offer(pending);
+            if (size.get() >= batchSize) {
+                LockSupport.unpark(writerThread);
+            }
+            return;
+        }
+
+        if (durability == Durability.BEST_EFFORT) {
+            meterRegistry.counter("audit.dropped").increment();
+            log.warn("Audit buffer full, dropped {} - txn={}", pending.auditLog().getAction(),
+                    pending.auditLog().getTransactionId());
+            return;
+        }
+
+        // ASYNC: back-pressure onto the caller instead of losing the record
+        try {
+            transactionTemplate.executeWithoutResult(status -> auditLogRepository.save(toEntity(pending)));
+            meterRegistry.counter("audit.overflow.inline").increment();
+            meterRegistry.counter("audit.written").increment();
+        } catch (Exception e) {
+            meterRegistry.counter("audit.dropped").increment();
+            log.error("Failed to write audit log inline: {}", pending.auditLog().getTransactionId(), e);
+        }
+    }
+
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= bufferSize) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void runWriter() {
+        while (running) {
+            try {
+                if (flush(false) < batchSize) {
+                    // Linger: let a batch build up unless enqueue wakes us early
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                }
+            } catch (Exception e) {
+                log.error("Audit writer flush failed: {}", e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+        }
+    }
+
+    /**
+     * Insert up to batch-size records in one transaction, the pending retry
+     * batch first. A batch that keeps failing is split into single inserts,
+     * so one poison record can't block every audit behind it.
+     *
+     * @param ignoreBackoff retry a failed batch now (shutdown drain)
+     */
+    private synchronized int flush(boolean ignoreBackoff) {
+        List<AuditLog> batch;
+        if (retryBatch != null) {
+            if (!ignoreBackoff && System.nanoTime() - retryAtNanos < 0) {
+                return 0;
+            }
+            batch = retryBatch;
+        } else {
+            batch = new ArrayList<>(batchSize);
+            PendingAudit pending;
+            while (batch.size() < batchSize && (pending = buffer.poll()) != null) {
+                size.decrementAndGet();
+                batch.add(toEntity(pending));
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+        }
+
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(
+                    status -> auditLogRepository.saveAll(batch)));
+            meterRegistry.counter("audit.written").increment(batch.size());
+            retryBatch = null;
+            retryCount = 0;
+        } catch (Exception e) {
+            retryCount++;
+            if (retryCount < retryAttempts) {
+                // Exponential backoff: retry-backoff-ms, x2, x4, ...
+                long backoffMs = retryBackoffMs << Math.min(retryCount - 1, 16);
+                retryBatch = batch;
+                retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+                meterRegistry.counter("audit.retried").increment(batch.size());
+                log.warn("Failed to write {} audit logs, retry {} in {} ms: {}", batch.size(), retryCount,
+                        backoffMs, e.getMessage());
+            } else {
+                retryBatch = null;
+                retryCount = 0;
+                writeOneByOne(batch);
+            }
+        }
+        return batch.size();
+    }
+
+    private synchronized boolean hasPending() {
+        return retryBatch != null || !buffer.isEmpty();
+    }
+
+    private void writeOneByOne(List<AuditLog> batch) {
+        int dropped = 0;
+        for (AuditLog auditLog : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> auditLogRepository.save(auditLog));
+                meterRegistry.counter("audit.written").increment();
+            } catch (Exception e) {
+                dropped++;
+                log.error("Dropped audit log {} - txn={}: {}", auditLog.getAction(), auditLog.getTransactionId(),
+                        e.getMessage());
+            }
+        }
+        meterRegistry.counter("audit.dropped").increment(dropped);
+    }
+
+    private AuditLog toEntity(PendingAudit pending) {
+        AuditLog auditLog = pending.auditLog();
+        if (pending.metadata() != null) {
+            auditLog.setMetadata(toJson(pending.metadata()));
+        }
+        return auditLog;
+    }
+
+    private String toJson(Object obj) {
+        try {
+            return objectMapper.writeValueAsString(obj);
+        } catch (Exception e) {
+            log.warn("Failed to serialize object to JSON: {}", e.getMessage());
+            return "{}";
+        }
+    }
+
+    private record PendingAudit(AuditLog auditLog, Object metadata) {
+    }
+}
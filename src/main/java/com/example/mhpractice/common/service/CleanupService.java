@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.example.mhpractice.common.repository.OutboxEventRepository;
 import com.example.mhpractice.features.user.repository.OtpResendTrackingRepository;
 import com.example.mhpractice.features.user.repository.VerificationTokenRepository;
 
@@ -18,10 +19,27 @@ public class CleanupService {
 
     private final OtpResendTrackingRepository otpResendTrackingRepository;
 
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final AuditPartitionManager auditPartitionManager;
+
+    // Only the JPA OtpStore writes these; with REDIS the keys expire natively
     @Scheduled(cron = "${app.scheduler.cleanup-cron}")
     public void cleanupExpiredTokens() {
         verificationTokenRepository.deleteAllByExpiresAtBefore(LocalDateTime.now());
         otpResendTrackingRepository.deleteAllByResetAtBefore(LocalDateTime.now().minusHours(24));
     }
 
+    // Published outbox rows are only kept for troubleshooting
+    @Scheduled(cron = "${app.scheduler.cleanup-cron}")
+    public void cleanupPublishedOutboxEvents() {
+        outboxEventRepository.deleteAllPublishedBefore(LocalDateTime.now().minusDays(1));
+    }
+
+    // Pre-create next months' audit_logs partitions, archive expired ones
+    @Scheduled(cron = "${app.audit.partition.cron}")
+    public void maintainAuditPartitions() {
+        auditPartitionManager.maintain();
+    }
+
 }
@@ -0,0 +1,114 @@
+package com.example.mhpractice.common.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.mhpractice.common.kafka.ProducerProfileRouter;
+import com.example.mhpractice.common.model.OutboxEvent;
+import com.example.mhpractice.common.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Polls outbox_events and publishes to Kafka in batches.
+ *
+ * 1. Lock up to batch-size unpublished rows (id order) in a DB transaction.
+ * 2. Send them in ONE Kafka transaction per producer profile
+ *    (idempotent, transactional producer, see ProducerProfileRouter).
+ * 3. Stamp published_at and commit.
+ *
+ * A crash between 2 and 3 re-sends the batch (at-least-once); consumers are
+ * already idempotent (PENDING / creditStatus checks). Full batches are drained
+ * back to back, otherwise the relay sleeps linger-ms between polls.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ProducerProfileRouter producerProfileRouter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.outbox.enabled}")
+    private boolean enabled;
+
+    @Value("${app.outbox.batch-size}")
+    private int batchSize;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, ProducerProfileRouter producerProfileRouter,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.producerProfileRouter = producerProfileRouter;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.linger-ms}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } while (published != null && published == batchSize);
+        } catch (Exception e) {
+            // Rows stay unpublished and are retried on the next tick
+            log.error("Outbox relay failed: {}", e.getMessage());
+            meterRegistry.counter("outbox.relay.failed").increment();
+        }
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockUnpublished(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // A topic always maps to the same profile, so id order is kept per topic
+        Map<KafkaTemplate<String, Object>, List<OutboxEvent>> byProfile = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            byProfile.computeIfAbsent(producerProfileRouter.templateFor(event.getTopic()), t -> new ArrayList<>())
+                    .add(event);
+        }
+
+        // Returns after commitTransaction, i.e. once every record is acked.
+        // If a later profile fails, the earlier ones are re-sent next tick (at-least-once)
+        byProfile.forEach((template, profileEvents) -> template.executeInTransaction(operations -> {
+            for (OutboxEvent event : profileEvents) {
+                operations.send(event.getTopic(), event.getMessageKey(), toPayload(event));
+            }
+            return null;
+        }));
+
+        outboxEventRepository.markPublished(events.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+
+        meterRegistry.counter("outbox.relay.published").increment(events.size());
+        return events.size();
+    }
+
+    private Object toPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot rebuild outbox payload " + event.getId(), e);
+        }
+    }
+}
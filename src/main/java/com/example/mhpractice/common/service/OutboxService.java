@@ -0,0 +1,46 @@
+package com.example.mhpractice.common.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.mhpractice.common.model.OutboxEvent;
+import com.example.mhpractice.common.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Transactional outbox writer.
+ *
+ * Replaces kafkaTemplate.send inside DB transactions: the message is stored
+ * as a row of the caller's transaction (MANDATORY, never its own), so request
+ * latency no longer waits for broker acks. OutboxRelay publishes it later.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String topic, String key, Object payload) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .topic(topic)
+                    .messageKey(key)
+                    .payloadType(payload.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + payload.getClass(), e);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String topic, Object payload) {
+        publish(topic, null, payload);
+    }
+}
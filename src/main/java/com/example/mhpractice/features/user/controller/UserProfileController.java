@@ -1,6 +1,5 @@
 package com.example.mhpractice.features.user.controller;
 
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -8,10 +7,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.mhpractice.common.http.annotation.StandardReponseBody;
+import com.example.mhpractice.common.security.AuthenticatedUser;
 import com.example.mhpractice.features.user.controller.request.ProfileRequest;
 import com.example.mhpractice.features.user.controller.response.UserProfileResponse;
 import com.example.mhpractice.features.user.service.UserService;
-import com.example.mhpractice.features.user.service.result.UserProfileResult;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,17 +24,17 @@ public class UserProfileController {
     private final UserService userService;
 
     @GetMapping("/profile")
-    public UserProfileResponse getUserProfile(Authentication authentication) {
-        UserProfileResult userProfileResult = userService.getUserProfile(authentication.getName());
+    public UserProfileResponse getUserProfile(AuthenticatedUser currentUser) {
+        // Served from the cached principal, evicted on profile updates
         return UserProfileResponse.builder()
-                .id(userProfileResult.getId())
-                .email(userProfileResult.getEmail())
-                .name(userProfileResult.getName())
+                .id(currentUser.userId().toString())
+                .email(currentUser.email())
+                .name(currentUser.name())
                 .build();
     }
 
     @PutMapping("/profile")
-    public void updateUserProfile(@Valid @RequestBody ProfileRequest profileRequest, Authentication authentication) {
-        userService.updateUserProfile(authentication.getName(), profileRequest.getName());
+    public void updateUserProfile(@Valid @RequestBody ProfileRequest profileRequest, AuthenticatedUser currentUser) {
+        userService.updateUserProfile(currentUser.email(), profileRequest.getName());
     }
 }
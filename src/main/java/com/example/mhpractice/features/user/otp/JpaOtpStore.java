@@ -0,0 +1,128 @@
+package com.example.mhpractice.features.user.otp;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.mhpractice.features.user.models.OtpResendTracking;
+import com.example.mhpractice.features.user.models.User;
+import com.example.mhpractice.features.user.models.VerificationToken;
+import com.example.mhpractice.features.user.models.VerificationToken.OtpPurposes;
+import com.example.mhpractice.features.user.repository.OtpResendTrackingRepository;
+import com.example.mhpractice.features.user.repository.VerificationTokenRepository;
+
+/**
+ * OTPs in verification_tokens / otp_resend_tracking. Fallback when Redis
+ * is not an option; expired rows are purged by CleanupService.
+ */
+public class JpaOtpStore implements OtpStore {
+
+    private final VerificationTokenRepository verificationTokenRepository;
+    private final OtpResendTrackingRepository otpResendTrackingRepository;
+    private final long ttlMs;
+    private final int maxAttempts;
+    private final long resendIntervalMs;
+    private final int maxResend;
+    private final long resendWindowMs;
+
+    public JpaOtpStore(VerificationTokenRepository verificationTokenRepository,
+            OtpResendTrackingRepository otpResendTrackingRepository, long ttlMs, int maxAttempts,
+            long resendIntervalMs, int maxResend, long resendWindowMs) {
+        this.verificationTokenRepository = verificationTokenRepository;
+        this.otpResendTrackingRepository = otpResendTrackingRepository;
+        this.ttlMs = ttlMs;
+        this.maxAttempts = maxAttempts;
+        this.resendIntervalMs = resendIntervalMs;
+        this.maxResend = maxResend;
+        this.resendWindowMs = resendWindowMs;
+    }
+
+    @Override
+    @Transactional
+    public void save(User user, OtpPurposes purpose, String otpHash, String ipAddress) {
+        // One live OTP per user + purpose
+        verificationTokenRepository.findByUserAndPurpose(user, purpose)
+                .ifPresent(verificationTokenRepository::delete);
+        verificationTokenRepository.flush();
+
+        verificationTokenRepository.save(VerificationToken.builder()
+                .user(user)
+                .otpCode(otpHash)
+                .purpose(purpose)
+                .attemptCount(0)
+                .maxAttempts(maxAttempts)
+                .used(false)
+                .ipAddress(ipAddress)
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(ttlMs)))
+                .build());
+    }
+
+    // Own transaction: the attempt must count even though the caller rolls
+    // back when it then throws INVALID_OTP
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Attempt recordAttempt(String email, OtpPurposes purpose) {
+        VerificationToken verificationToken = verificationTokenRepository.findByUserEmailAndPurpose(email, purpose)
+                .orElse(null);
+        if (verificationToken == null) {
+            return Attempt.of(AttemptResult.NOT_FOUND);
+        }
+
+        verificationToken.setAttemptCount(verificationToken.getAttemptCount() + 1);
+        verificationTokenRepository.save(verificationToken);
+
+        if (verificationToken.getAttemptCount() > verificationToken.getMaxAttempts()) {
+            return Attempt.of(AttemptResult.MAX_ATTEMPTS_EXCEEDED);
+        }
+        if (verificationToken.isUsed() || verificationToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return Attempt.of(AttemptResult.EXPIRED);
+        }
+        return new Attempt(AttemptResult.OK, verificationToken.getOtpCode());
+    }
+
+    @Override
+    @Transactional
+    public boolean consume(String email, OtpPurposes purpose, String otpHash) {
+        return verificationTokenRepository.findByUserEmailAndPurpose(email, purpose)
+                .filter(verificationToken -> verificationToken.getOtpCode().equals(otpHash))
+                .map(verificationToken -> verificationTokenRepository.markUsed(verificationToken.getId()) == 1)
+                .orElse(false);
+    }
+
+    @Override
+    @Transactional
+    public ResendResult recordResend(String email, OtpPurposes purpose) {
+        LocalDateTime now = LocalDateTime.now();
+
+        OtpResendTracking otpResendTracking = otpResendTrackingRepository.findByEmailAndPurpose(email, purpose)
+                .orElseGet(() -> OtpResendTracking.builder()
+                        .email(email)
+                        .purpose(purpose)
+                        .resendInterval((int) (resendIntervalMs / 1000))
+                        .maxResend(maxResend)
+                        .resetAt(now.plus(Duration.ofMillis(resendWindowMs)))
+                        .build());
+
+        // New window once the old one has passed
+        if (now.isAfter(otpResendTracking.getResetAt())) {
+            otpResendTracking.setResendCount(0);
+            otpResendTracking.setResetAt(now.plus(Duration.ofMillis(resendWindowMs)));
+        }
+
+        if (otpResendTracking.getLastResendAt() != null &&
+                now.isBefore(otpResendTracking.getLastResendAt().plusSeconds(otpResendTracking.getResendInterval()))) {
+            return ResendResult.TOO_FREQUENT;
+        }
+
+        if (otpResendTracking.getResendCount() >= otpResendTracking.getMaxResend()) {
+            return ResendResult.MAX_RESEND_EXCEEDED;
+        }
+
+        otpResendTracking.setLastResendAt(now);
+        otpResendTracking.setResendCount(otpResendTracking.getResendCount() + 1);
+        otpResendTrackingRepository.save(otpResendTracking);
+        return ResendResult.ALLOWED;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.mhpractice.features.user.otp;
+
+import com.example.mhpractice.features.user.models.User;
+import com.example.mhpractice.features.user.models.VerificationToken.OtpPurposes;
+
+/**
+ * Storage for issued OTPs and resend windows. Holds only the OTP hash, never
+ * the code.
+ *
+ * Modes (app.auth.otp.store):
+ * - REDIS: one hash per email + purpose with a native TTL; attempt counting,
+ * single use and resend windows are Lua scripts, so they are atomic across
+ * nodes. Nothing to clean up, nothing written to Postgres.
+ * - JPA: verification_tokens / otp_resend_tracking rows, purged nightly by
+ * CleanupService.
+ *
+ * At most one live OTP per email + purpose: save() replaces the previous one.
+ */
+public interface OtpStore {
+
+    enum Mode {
+        REDIS,
+        JPA
+    }
+
+    void save(User user, OtpPurposes purpose, String otpHash, String ipAddress);
+
+    /**
+     * Counts one verification attempt (also when the code turns out wrong)
+     * and returns the stored hash to check against.
+     */
+    Attempt recordAttempt(String email, OtpPurposes purpose);
+
+    /**
+     * Marks the OTP used. False if it was already used or is gone, e.g. two
+     * concurrent verifications of the same code: only one wins.
+     */
+    boolean consume(String email, OtpPurposes purpose, String otpHash);
+
+    /**
+     * Counts one resend in the current window.
+     */
+    ResendResult recordResend(String email, OtpPurposes purpose);
+
+    enum AttemptResult {
+        OK,
+        NOT_FOUND,
+        EXPIRED,
+        MAX_ATTEMPTS_EXCEEDED
+    }
+
+    enum ResendResult {
+        ALLOWED,
+        TOO_FREQUENT,
+        MAX_RESEND_EXCEEDED
+    }
+
+    /**
+     * otpHash is only set when result is OK.
+     */
+    record Attempt(AttemptResult result, String otpHash) {
+
+        static Attempt of(AttemptResult result) {
+            return new Attempt(result, null);
+        }
+    }
+}
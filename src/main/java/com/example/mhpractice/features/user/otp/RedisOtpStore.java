@@ -0,0 +1,143 @@
+package com.example.mhpractice.features.user.otp;
+
+import java.util.List;
+
+import org.redisson.api.RScript;
+import org.redisson.api.RScript.ReturnType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import com.example.mhpractice.features.user.models.User;
+import com.example.mhpractice.features.user.models.VerificationToken.OtpPurposes;
+
+/**
+ * OTPs in Redis, no database writes.
+ *
+ * Keys (purpose first, so one purpose can be scanned/flushed on its own):
+ * - otp:{purpose}:{email} hash {hash, attempts, ip}, PEXPIRE ttl-ms. Deleted
+ * on successful verification, so a used or expired code is simply gone.
+ * - otp:resend:{purpose}:{email} hash {count, last}, PEXPIRE window-ms from
+ * the first resend. The window resets when the key expires.
+ *
+ * Every read-modify-write is one Lua script, so concurrent requests on
+ * different nodes can't both pass the same check.
+ */
+public class RedisOtpStore implements OtpStore {
+
+    // ARGV: otpHash, ip, ttlMs
+    private static final String SAVE_SCRIPT = """
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'hash', ARGV[1], 'attempts', 0, 'ip', ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """;
+
+    // ARGV: maxAttempts. Returns {'ok', hash} | {'missing'} | {'max'}
+    private static final String ATTEMPT_SCRIPT = """
+            local hash = redis.call('HGET', KEYS[1], 'hash')
+            if not hash then
+                return {'missing'}
+            end
+            local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+            if attempts > tonumber(ARGV[1]) then
+                return {'max'}
+            end
+            return {'ok', hash}
+            """;
+
+    // ARGV: otpHash. Compare-and-delete, 1 if this caller consumed it
+    private static final String CONSUME_SCRIPT = """
+            if redis.call('HGET', KEYS[1], 'hash') == ARGV[1] then
+                redis.call('DEL', KEYS[1])
+                return 1
+            end
+            return 0
+            """;
+
+    // ARGV: intervalMs, maxResend, windowMs. Redis clock, so nodes agree
+    private static final String RESEND_SCRIPT = """
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local last = tonumber(redis.call('HGET', KEYS[1], 'last') or '0')
+            if last > 0 and now < last + tonumber(ARGV[1]) then
+                return 'too_frequent'
+            end
+            local count = tonumber(redis.call('HGET', KEYS[1], 'count') or '0')
+            if count >= tonumber(ARGV[2]) then
+                return 'max'
+            end
+            redis.call('HSET', KEYS[1], 'count', count + 1, 'last', now)
+            if count == 0 then
+                redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            end
+            return 'ok'
+            """;
+
+    private final RScript script;
+    private final long ttlMs;
+    private final int maxAttempts;
+    private final long resendIntervalMs;
+    private final int maxResend;
+    private final long resendWindowMs;
+
+    public RedisOtpStore(RedissonClient redissonClient, long ttlMs, int maxAttempts,
+            long resendIntervalMs, int maxResend, long resendWindowMs) {
+        this.script = redissonClient.getScript(StringCodec.INSTANCE);
+        this.ttlMs = ttlMs;
+        this.maxAttempts = maxAttempts;
+        this.resendIntervalMs = resendIntervalMs;
+        this.maxResend = maxResend;
+        this.resendWindowMs = resendWindowMs;
+    }
+
+    @Override
+    public void save(User user, OtpPurposes purpose, String otpHash, String ipAddress) {
+        script.eval(RScript.Mode.READ_WRITE, SAVE_SCRIPT, ReturnType.INTEGER,
+                List.of(otpKey(user.getEmail(), purpose)),
+                otpHash, ipAddress == null ? "" : ipAddress, String.valueOf(ttlMs));
+    }
+
+    @Override
+    public Attempt recordAttempt(String email, OtpPurposes purpose) {
+        List<Object> reply = script.eval(RScript.Mode.READ_WRITE, ATTEMPT_SCRIPT, ReturnType.MULTI,
+                List.of(otpKey(email, purpose)), String.valueOf(maxAttempts));
+
+        return switch (String.valueOf(reply.get(0))) {
+            case "ok" -> new Attempt(AttemptResult.OK, String.valueOf(reply.get(1)));
+            case "max" -> Attempt.of(AttemptResult.MAX_ATTEMPTS_EXCEEDED);
+            default -> Attempt.of(AttemptResult.NOT_FOUND);
+        };
+    }
+
+    @Override
+    public boolean consume(String email, OtpPurposes purpose, String otpHash) {
+        Boolean consumed = script.eval(RScript.Mode.READ_WRITE, CONSUME_SCRIPT, ReturnType.BOOLEAN,
+                List.of(otpKey(email, purpose)), otpHash);
+        return Boolean.TRUE.equals(consumed);
+    }
+
+    @Override
+    public ResendResult recordResend(String email, OtpPurposes purpose) {
+        String reply = script.eval(RScript.Mode.READ_WRITE, RESEND_SCRIPT, ReturnType.VALUE,
+                List.of(resendKey(email, purpose)),
+                String.valueOf(resendIntervalMs), String.valueOf(maxResend), String.valueOf(resendWindowMs));
+
+        return switch (reply) {
+            case "too_frequent" -> ResendResult.TOO_FREQUENT;
+            case "max" -> ResendResult.MAX_RESEND_EXCEEDED;
+            default -> ResendResult.ALLOWED;
+        };
+    }
+
+    // ================
+    // Private Methods
+    // ================
+
+    private static String otpKey(String email, OtpPurposes purpose) {
+        return "otp:" + purpose.name() + ":" + email;
+    }
+
+    private static String resendKey(String email, OtpPurposes purpose) {
+        return "otp:resend:" + purpose.name() + ":" + email;
+    }
+}
@@ -4,6 +4,10 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.mhpractice.common.security.AuthenticatedUser;
 import com.example.mhpractice.features.user.models.User;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
@@ -13,4 +17,9 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     boolean existsByEmail(String email);
 
+    // User + wallet id in one round trip (wallet may not exist yet)
+    @Query("SELECT new com.example.mhpractice.common.security.AuthenticatedUser(u.id, w.id, u.email, u.name) "
+            + "FROM User u LEFT JOIN Wallet w ON w.user = u WHERE u.email = :email")
+    Optional<AuthenticatedUser> findAuthenticatedUserByEmail(@Param("email") String email);
+
 }
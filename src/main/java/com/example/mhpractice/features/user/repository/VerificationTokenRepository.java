@@ -5,6 +5,9 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.mhpractice.features.user.models.User;
 import com.example.mhpractice.features.user.models.VerificationToken;
@@ -13,5 +16,12 @@ public interface VerificationTokenRepository extends JpaRepository<VerificationT
 
     Optional<VerificationToken> findByUserAndPurpose(User user, VerificationToken.OtpPurposes purpose);
 
+    Optional<VerificationToken> findByUserEmailAndPurpose(String email, VerificationToken.OtpPurposes purpose);
+
+    // Single use: only one concurrent verification flips is_used
+    @Modifying
+    @Query("UPDATE VerificationToken t SET t.used = true WHERE t.id = :id AND t.used = false")
+    int markUsed(@Param("id") UUID id);
+
     void deleteAllByExpiresAtBefore(LocalDateTime dateTime);
 }
@@ -1,24 +1,19 @@
 package com.example.mhpractice.features.user.service.impl;
 
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
 
-import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
 
 import com.example.mhpractice.common.exception.BusinessException;
 import com.example.mhpractice.common.exception.ErrorCode;
+import com.example.mhpractice.common.security.PasswordHashingService;
 import com.example.mhpractice.features.notification.service.NotificationService;
-import com.example.mhpractice.features.user.models.OtpResendTracking;
 import com.example.mhpractice.features.user.models.User;
-import com.example.mhpractice.features.user.models.VerificationToken;
 import com.example.mhpractice.features.user.models.VerificationToken.OtpPurposes;
-import com.example.mhpractice.features.user.repository.OtpResendTrackingRepository;
+import com.example.mhpractice.features.user.otp.OtpStore;
 import com.example.mhpractice.features.user.repository.UserRepository;
-import com.example.mhpractice.features.user.repository.VerificationTokenRepository;
 import com.example.mhpractice.features.user.service.OtpService;
 
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
@@ -26,14 +21,16 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OtpServiceImpl implements OtpService {
 
-    private final UserRepository userRepository;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
 
-    private final VerificationTokenRepository verificationTokenRepository;
+    private final UserRepository userRepository;
 
-    private final OtpResendTrackingRepository otpResendTrackingRepository;
+    private final OtpStore otpStore;
 
     private final NotificationService notificationService;
 
+    private final PasswordHashingService passwordHashingService;
+
     @Transactional
     @Override
     public void requestOtp(String email, OtpPurposes purpose, String ipAddress) {
@@ -42,21 +39,11 @@ public class OtpServiceImpl implements OtpService {
 
         // Generate OTP
         String otpCode = generateOtpCode();
-        String hashedOtp = BCrypt.hashpw(otpCode, BCrypt.gensalt(10));
-
-        // Create Verification Token (for verification)
-        VerificationToken verificationToken = VerificationToken.builder()
-                .user(user)
-                .otpCode(hashedOtp)
-                .purpose(purpose)
-                .attemptCount(0)
-                .maxAttempts(5)
-                .used(false)
-                .ipAddress(ipAddress)
-                .expiresAt(LocalDateTime.now().plusMinutes(10))
-                .build();
-
-        verificationTokenRepository.save(verificationToken);
+        // Keyed HMAC, not BCrypt: the code lives 10 minutes and attempts are capped
+        String hashedOtp = passwordHashingService.hashOtp(otpCode, email, purpose.name());
+
+        // Replaces any previous OTP for this purpose (Redis by default, see OtpStore)
+        otpStore.save(user, purpose, hashedOtp, ipAddress);
 
         notificationService.sendOtpEmail(email, otpCode);
     }
@@ -67,38 +54,26 @@ public class OtpServiceImpl implements OtpService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND, "User not found"));
 
-        // Find Verification Token
-        VerificationToken verificationToken = verificationTokenRepository.findByUserAndPurpose(user, purpose)
-                .orElseThrow(() -> new BusinessException(ErrorCode.OTP_NOT_FOUND, "OTP not found"));
-
-        // Update Attempt Count
-        verificationToken.setAttemptCount(verificationToken.getAttemptCount() + 1);
-
-        // Check if max attempts exceeded
-        if (verificationToken.getAttemptCount() > verificationToken.getMaxAttempts()) {
-            throw new BusinessException(ErrorCode.OTP_MAX_ATTEMPTS_EXCEEDED);
+        // Count the attempt first, it sticks even if the code is wrong
+        OtpStore.Attempt attempt = otpStore.recordAttempt(email, purpose);
+        switch (attempt.result()) {
+            case NOT_FOUND -> throw new BusinessException(ErrorCode.OTP_NOT_FOUND, "OTP not found");
+            case MAX_ATTEMPTS_EXCEEDED -> throw new BusinessException(ErrorCode.OTP_MAX_ATTEMPTS_EXCEEDED);
+            case EXPIRED -> throw new BusinessException(ErrorCode.OTP_EXPIRED);
+            case OK -> {
+            }
         }
 
-        // Check if otp expired
-        if (verificationToken.getExpiresAt().isBefore(LocalDateTime.now())) {
-            throw new BusinessException(ErrorCode.OTP_EXPIRED);
+        // If otp is incorrect, throw exception
+        if (!passwordHashingService.matchesOtp(otpCode, email, purpose.name(), attempt.otpHash())) {
+            throw new BusinessException(ErrorCode.INVALID_OTP);
         }
 
-        // Check if otp already used
-        if (verificationToken.isUsed()) {
+        // Single use: a concurrent verification of the same code loses here
+        if (!otpStore.consume(email, purpose, attempt.otpHash())) {
             throw new BusinessException(ErrorCode.OTP_EXPIRED);
         }
 
-        // If otp is incorrect, update db and throw exception
-        if (!BCrypt.checkpw(otpCode, verificationToken.getOtpCode())) {
-            verificationTokenRepository.save(verificationToken);
-            throw new BusinessException(ErrorCode.INVALID_OTP);
-        }
-
-        // If otp is correct, update db and return true
-        verificationToken.setUsed(true);
-        verificationTokenRepository.save(verificationToken);
-
         // Update user email verified
         user.setEmailVerified(true);
         userRepository.save(user);
@@ -109,47 +84,20 @@ public class OtpServiceImpl implements OtpService {
     @Transactional
     @Override
     public void resendOtp(String email, OtpPurposes purpose, String ipAddress) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND, "User not found"));
-
-        // Delete old verification token
-        verificationTokenRepository.findByUserAndPurpose(user, purpose)
-                .ifPresent(verificationTokenRepository::delete);
-
-        // Find or create otp resend tracking
-        OtpResendTracking otpResendTracking = otpResendTrackingRepository.findByEmailAndPurpose(email, purpose)
-                .orElseGet(() -> OtpResendTracking.builder()
-                        .email(email)
-                        .purpose(purpose)
-                        // .lastResendAt(LocalDateTime.now()) // Do not initialize this, otherwise check
-                        // below will fail
-                        .resetAt(LocalDateTime.now().plusMinutes(20))
-                        .build());
-
-        // Reset resend count if reset time is passed
-        if (LocalDateTime.now().isAfter(otpResendTracking.getResetAt())) {
-            otpResendTracking.setResendCount(0);
-            otpResendTracking.setResetAt(LocalDateTime.now().plusMinutes(10));
-        }
-
-        // Check if resend interval is too short
-        if (otpResendTracking.getLastResendAt() != null &&
-                LocalDateTime.now().isBefore(
-                        otpResendTracking.getLastResendAt().plusSeconds(otpResendTracking.getResendInterval()))) {
-            throw new BusinessException(ErrorCode.OTP_REQUEST_TOO_FREQUENT);
+        // Unknown emails never get a resend window
+        if (!userRepository.existsByEmail(email)) {
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND, "User not found");
         }
 
-        // Check if max resend count exceeded
-        if (otpResendTracking.getResendCount() >= otpResendTracking.getMaxResend()) {
-            throw new BusinessException(ErrorCode.OTP_MAX_RESEND_EXCEEDED);
+        // Resend window checks before touching the current OTP
+        switch (otpStore.recordResend(email, purpose)) {
+            case TOO_FREQUENT -> throw new BusinessException(ErrorCode.OTP_REQUEST_TOO_FREQUENT);
+            case MAX_RESEND_EXCEEDED -> throw new BusinessException(ErrorCode.OTP_MAX_RESEND_EXCEEDED);
+            case ALLOWED -> {
+            }
         }
 
-        // Update resend count and last resend time
-        otpResendTracking.setLastResendAt(LocalDateTime.now());
-        otpResendTracking.setResendCount(otpResendTracking.getResendCount() + 1);
-        otpResendTrackingRepository.save(otpResendTracking);
-
-        // Request new otp
+        // Request new otp, replaces the old one
         requestOtp(email, purpose, ipAddress);
     }
 
@@ -158,11 +106,10 @@ public class OtpServiceImpl implements OtpService {
     // ================
 
     private String generateOtpCode() {
-        SecureRandom secureRandom = new SecureRandom();
         StringBuilder otpCode = new StringBuilder();
 
         for (int i = 0; i < 6; i++) {
-            otpCode.append(secureRandom.nextInt(10)); // 0-9
+            otpCode.append(SECURE_RANDOM.nextInt(10)); // 0-9
         }
 
         return otpCode.toString();
@@ -4,6 +4,7 @@ import org.springframework.stereotype.Service;
 
 import com.example.mhpractice.common.exception.BusinessException;
 import com.example.mhpractice.common.exception.ErrorCode;
+import com.example.mhpractice.common.security.AuthenticatedUserCache;
 import com.example.mhpractice.features.user.models.User;
 import com.example.mhpractice.features.user.repository.UserRepository;
 import com.example.mhpractice.features.user.service.UserService;
@@ -16,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     @Override
     public User getUserByEmail(String email) {
@@ -48,5 +50,8 @@ public class UserServiceImpl implements UserService {
 
         user.setName(name);
         userRepository.save(user);
+
+        // Cached principal carries the name
+        authenticatedUserCache.evictAfterCommit(email);
     }
 }
@@ -0,0 +1,33 @@
+package com.example.mhpractice.features.wallet.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.mhpractice.common.http.annotation.StandardReponseBody;
+import com.example.mhpractice.features.wallet.service.DeadLetterReplayService;
+import com.example.mhpractice.features.wallet.service.result.DeadLetterReplayResult;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Ops tool: re-drives dead-lettered transfer requests.
+ * There are no roles yet, so it is only registered when
+ * app.kafka.retry-topics.replay-api.enabled=true.
+ */
+@RestController
+@RequestMapping("/api/admin/dlt")
+@RequiredArgsConstructor
+@StandardReponseBody
+@ConditionalOnProperty(name = "app.kafka.retry-topics.replay-api.enabled", havingValue = "true")
+public class DeadLetterController {
+
+    private final DeadLetterReplayService deadLetterReplayService;
+
+    @PostMapping("/transfer-requests/replay")
+    public DeadLetterReplayResult replayTransferRequests(@RequestParam(defaultValue = "100") int max) {
+        return deadLetterReplayService.replayTransferRequests(max);
+    }
+}
@@ -1,21 +1,34 @@
 package com.example.mhpractice.features.wallet.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.mhpractice.common.exception.BusinessException;
+import com.example.mhpractice.common.exception.ErrorCode;
 import com.example.mhpractice.common.http.annotation.StandardReponseBody;
+import com.example.mhpractice.common.security.AuthenticatedUser;
 import com.example.mhpractice.features.wallet.service.TransactionService;
+import com.example.mhpractice.features.wallet.service.TransactionService.ExportFormat;
+import com.example.mhpractice.features.wallet.service.TransferStatusRegistry;
 import com.example.mhpractice.features.wallet.service.result.TransactionDetailsResult;
+import com.example.mhpractice.features.wallet.service.result.TransactionHistoryPage;
+import com.example.mhpractice.features.wallet.service.result.TransferStatusResult;
 
-import com.example.mhpractice.features.user.service.UserService;
-import com.example.mhpractice.features.wallet.service.WalletService;
-import com.example.mhpractice.features.user.models.User;
-import com.example.mhpractice.features.wallet.model.Wallet;
-import org.springframework.security.core.Authentication;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,18 +39,129 @@ import lombok.RequiredArgsConstructor;
 public class TransactionController {
 
     private final TransactionService transactionService;
-    private final UserService userService;
-    private final WalletService walletService;
+    private final TransferStatusRegistry transferStatusRegistry;
+
+    @Value("${app.wallet.transfer-status.max-wait-ms}")
+    private long maxWaitMs;
 
     @GetMapping("/transactions")
-    public List<TransactionDetailsResult> getTransactionHistory(Authentication authentication) {
-        User user = userService.getUserByEmail(authentication.getName());
-        Wallet wallet = walletService.getWalletByUserId(user.getId());
-        return transactionService.getTransactionHistory(wallet.getId().toString());
+    public TransactionHistoryPage getTransactionHistory(AuthenticatedUser currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return transactionService.getTransactionHistory(walletIdOf(currentUser), cursor, limit);
+    }
+
+    /**
+     * Streams the caller's full history as NDJSON (default) or CSV.
+     * Rows go from a JDBC cursor straight to the socket, never into a list.
+     */
+    @GetMapping("/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionHistory(AuthenticatedUser currentUser,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        // Resolve wallet on the request thread so errors still map to a normal response
+        String walletId = walletIdOf(currentUser);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+                    transactionService.exportTransactionHistory(walletId, format, gzipOut);
+                }
+            } else {
+                transactionService.exportTransactionHistory(walletId, format, out);
+            }
+        };
+
+        String extension = format == ExportFormat.CSV ? "csv" : "ndjson";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV
+                        ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-" + walletId + "." + extension + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @GetMapping("/transactions/{transactionId}")
     public TransactionDetailsResult getTransactionDetails(@PathVariable String transactionId) {
         return transactionService.getTransactionDetails(transactionId);
     }
+
+    // =====================================================================
+    // Transfer status: answered from TransferStatusRegistry as soon as the
+    // result event arrives, DB read only when the wait times out. Replaces
+    // client-side polling of GET /transactions/{transactionId}.
+    // =====================================================================
+
+    /**
+     * Long-poll: returns on completion, or the current DB state after waitMs.
+     */
+    @GetMapping("/transactions/{transactionId}/status")
+    public DeferredResult<TransferStatusResult> awaitTransferStatus(AuthenticatedUser currentUser,
+            @PathVariable String transactionId,
+            @RequestParam(required = false) Long waitMs) {
+        // Only the sender and the receiver may watch a transfer
+        transactionService.checkParticipant(transactionId, walletIdOf(currentUser));
+
+        long timeout = waitMs == null ? maxWaitMs : Math.max(1000L, Math.min(waitMs, maxWaitMs));
+        DeferredResult<TransferStatusResult> result = new DeferredResult<>(timeout);
+
+        CompletableFuture<TransferStatusResult> completion = transferStatusRegistry.await(transactionId);
+        completion.thenAccept(result::setResult);
+
+        result.onTimeout(() -> {
+            transferStatusRegistry.cancel(transactionId, completion);
+            try {
+                result.setResult(transactionService.getTransferStatus(transactionId));
+            } catch (BusinessException e) {
+                result.setErrorResult(e);
+            }
+        });
+        result.onCompletion(() -> transferStatusRegistry.cancel(transactionId, completion));
+        return result;
+    }
+
+    /**
+     * SSE variant: one TRANSFER_STATUS event, then the stream completes.
+     */
+    @GetMapping(value = "/transactions/{transactionId}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTransferStatus(AuthenticatedUser currentUser, @PathVariable String transactionId) {
+        transactionService.checkParticipant(transactionId, walletIdOf(currentUser));
+
+        SseEmitter emitter = new SseEmitter(maxWaitMs);
+
+        CompletableFuture<TransferStatusResult> completion = transferStatusRegistry.await(transactionId);
+        completion.thenAccept(status -> sendStatus(emitter, status));
+
+        emitter.onTimeout(() -> {
+            transferStatusRegistry.cancel(transactionId, completion);
+            try {
+                sendStatus(emitter, transactionService.getTransferStatus(transactionId));
+            } catch (BusinessException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        emitter.onCompletion(() -> transferStatusRegistry.cancel(transactionId, completion));
+        emitter.onError(e -> transferStatusRegistry.cancel(transactionId, completion));
+        return emitter;
+    }
+
+    private String walletIdOf(AuthenticatedUser currentUser) {
+        if (currentUser.walletId() == null) {
+            throw new BusinessException(ErrorCode.WALLET_NOT_FOUND);
+        }
+        return currentUser.walletId().toString();
+    }
+
+    private void sendStatus(SseEmitter emitter, TransferStatusResult status) {
+        try {
+            emitter.send(SseEmitter.event().name("TRANSFER_STATUS").data(status));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
 }
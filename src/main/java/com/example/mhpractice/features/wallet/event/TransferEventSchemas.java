@@ -0,0 +1,81 @@
+package com.example.mhpractice.features.wallet.event;
+
+import java.util.List;
+
+import com.example.mhpractice.common.kafka.EventSchema;
+import com.example.mhpractice.common.kafka.FieldType;
+
+/**
+ * Binary wire schemas of the transfer events (see EventSchema for the
+ * evolution rules). When adding a field to an event, append it at the END of
+ * its schema here and record it in src/test/resources/kafka-schemas.
+ */
+public final class TransferEventSchemas {
+
+    public static final EventSchema<TransferRequestEvent> TRANSFER_REQUEST = EventSchema
+            .builder("TransferRequestEvent", TransferRequestEvent.class, TransferRequestEvent::new)
+            .field("fromWalletId", FieldType.UUID, TransferRequestEvent::getFromWalletId, TransferRequestEvent::setFromWalletId)
+            .field("toWalletId", FieldType.UUID, TransferRequestEvent::getToWalletId, TransferRequestEvent::setToWalletId)
+            .field("amount", FieldType.DECIMAL, TransferRequestEvent::getAmount, TransferRequestEvent::setAmount)
+            .field("transactionId", FieldType.STRING, TransferRequestEvent::getTransactionId, TransferRequestEvent::setTransactionId)
+            .field("fromUserId", FieldType.UUID, TransferRequestEvent::getFromUserId, TransferRequestEvent::setFromUserId)
+            .field("fromUserMail", FieldType.STRING, TransferRequestEvent::getFromUserMail, TransferRequestEvent::setFromUserMail)
+            .field("fromUserName", FieldType.STRING, TransferRequestEvent::getFromUserName, TransferRequestEvent::setFromUserName)
+            .field("toUserId", FieldType.UUID, TransferRequestEvent::getToUserId, TransferRequestEvent::setToUserId)
+            .field("toUserMail", FieldType.STRING, TransferRequestEvent::getToUserMail, TransferRequestEvent::setToUserMail)
+            .field("toUserName", FieldType.STRING, TransferRequestEvent::getToUserName, TransferRequestEvent::setToUserName)
+            .build();
+
+    public static final EventSchema<TransferSuccessEvent> TRANSFER_SUCCESS = EventSchema
+            .builder("TransferSuccessEvent", TransferSuccessEvent.class, TransferSuccessEvent::new)
+            .field("version", FieldType.INT, TransferSuccessEvent::getVersion, TransferSuccessEvent::setVersion)
+            .field("transactionId", FieldType.STRING, TransferSuccessEvent::getTransactionId, TransferSuccessEvent::setTransactionId)
+            .field("fromWalletId", FieldType.UUID, TransferSuccessEvent::getFromWalletId, TransferSuccessEvent::setFromWalletId)
+            .field("toWalletId", FieldType.UUID, TransferSuccessEvent::getToWalletId, TransferSuccessEvent::setToWalletId)
+            .field("fromUserId", FieldType.UUID, TransferSuccessEvent::getFromUserId, TransferSuccessEvent::setFromUserId)
+            .field("fromUserMail", FieldType.STRING, TransferSuccessEvent::getFromUserMail, TransferSuccessEvent::setFromUserMail)
+            .field("fromUserName", FieldType.STRING, TransferSuccessEvent::getFromUserName, TransferSuccessEvent::setFromUserName)
+            .field("toUserId", FieldType.UUID, TransferSuccessEvent::getToUserId, TransferSuccessEvent::setToUserId)
+            .field("toUserMail", FieldType.STRING, TransferSuccessEvent::getToUserMail, TransferSuccessEvent::setToUserMail)
+            .field("toUserName", FieldType.STRING, TransferSuccessEvent::getToUserName, TransferSuccessEvent::setToUserName)
+            .field("amount", FieldType.DECIMAL, TransferSuccessEvent::getAmount, TransferSuccessEvent::setAmount)
+            .field("timestamp", FieldType.TIMESTAMP, TransferSuccessEvent::getTimestamp, TransferSuccessEvent::setTimestamp)
+            .field("eventId", FieldType.STRING, TransferSuccessEvent::getEventId, TransferSuccessEvent::setEventId)
+            .build();
+
+    public static final EventSchema<TransferFailedEvent> TRANSFER_FAILED = EventSchema
+            .builder("TransferFailedEvent", TransferFailedEvent.class, TransferFailedEvent::new)
+            .field("version", FieldType.INT, TransferFailedEvent::getVersion, TransferFailedEvent::setVersion)
+            .field("transactionId", FieldType.STRING, TransferFailedEvent::getTransactionId, TransferFailedEvent::setTransactionId)
+            .field("reason", FieldType.STRING, TransferFailedEvent::getReason, TransferFailedEvent::setReason)
+            .field("fromWalletId", FieldType.UUID, TransferFailedEvent::getFromWalletId, TransferFailedEvent::setFromWalletId)
+            .field("toWalletId", FieldType.UUID, TransferFailedEvent::getToWalletId, TransferFailedEvent::setToWalletId)
+            .field("fromUserId", FieldType.UUID, TransferFailedEvent::getFromUserId, TransferFailedEvent::setFromUserId)
+            .field("fromUserMail", FieldType.STRING, TransferFailedEvent::getFromUserMail, TransferFailedEvent::setFromUserMail)
+            .field("toUserId", FieldType.UUID, TransferFailedEvent::getToUserId, TransferFailedEvent::setToUserId)
+            .field("toUserMail", FieldType.STRING, TransferFailedEvent::getToUserMail, TransferFailedEvent::setToUserMail)
+            .field("amount", FieldType.DECIMAL, TransferFailedEvent::getAmount, TransferFailedEvent::setAmount)
+            .field("timestamp", FieldType.TIMESTAMP, TransferFailedEvent::getTimestamp, TransferFailedEvent::setTimestamp)
+            .field("eventId", FieldType.STRING, TransferFailedEvent::getEventId, TransferFailedEvent::setEventId)
+            .build();
+
+    public static final EventSchema<TransferRollbackEvent> TRANSFER_ROLLBACK = EventSchema
+            .builder("TransferRollbackEvent", TransferRollbackEvent.class, TransferRollbackEvent::new)
+            .field("version", FieldType.INT, TransferRollbackEvent::getVersion, TransferRollbackEvent::setVersion)
+            .field("transactionId", FieldType.STRING, TransferRollbackEvent::getTransactionId, TransferRollbackEvent::setTransactionId)
+            .field("reason", FieldType.STRING, TransferRollbackEvent::getReason, TransferRollbackEvent::setReason)
+            .field("fromWalletId", FieldType.UUID, TransferRollbackEvent::getFromWalletId, TransferRollbackEvent::setFromWalletId)
+            .field("toWalletId", FieldType.UUID, TransferRollbackEvent::getToWalletId, TransferRollbackEvent::setToWalletId)
+            .field("fromUserMail", FieldType.STRING, TransferRollbackEvent::getFromUserMail, TransferRollbackEvent::setFromUserMail)
+            .field("toUserMail", FieldType.STRING, TransferRollbackEvent::getToUserMail, TransferRollbackEvent::setToUserMail)
+            .field("amount", FieldType.DECIMAL, TransferRollbackEvent::getAmount, TransferRollbackEvent::setAmount)
+            .field("timestamp", FieldType.TIMESTAMP, TransferRollbackEvent::getTimestamp, TransferRollbackEvent::setTimestamp)
+            .field("eventId", FieldType.STRING, TransferRollbackEvent::getEventId, TransferRollbackEvent::setEventId)
+            .build();
+
+    public static final List<EventSchema<?>> ALL = List.of(
+            TRANSFER_REQUEST, TRANSFER_SUCCESS, TRANSFER_FAILED, TRANSFER_ROLLBACK);
+
+    private TransferEventSchemas() {
+    }
+}
@@ -1,20 +1,39 @@
 package com.example.mhpractice.features.wallet.event;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Published on transfer.events.failed. Self-contained, see TransferSuccessEvent.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class TransferFailedEvent {
 
+    public static final int VERSION = 1;
+
+    @Builder.Default
+    private int version = VERSION; // Payload schema version
     private String transactionId; // Idempotency key
-    private String reason; // Transfer amount
+    private String reason; // Why the transfer failed
+    private UUID fromWalletId;
+    private UUID toWalletId;
+    private UUID fromUserId; // Sender (SSE channel)
+    private String fromUserMail;
+    private UUID toUserId;
+    private String toUserMail;
+    private BigDecimal amount;
     private LocalDateTime timestamp; // When event occurred
     private String eventId; // Unique event ID
 
@@ -27,4 +46,20 @@ public class TransferFailedEvent {
                 .eventId(UUID.randomUUID().toString())
                 .build();
     }
-}
\ No newline at end of file
+
+    public static TransferFailedEvent of(TransferRequestEvent request, String reason) {
+        return TransferFailedEvent.builder()
+                .transactionId(request.getTransactionId())
+                .reason(reason)
+                .fromWalletId(request.getFromWalletId())
+                .toWalletId(request.getToWalletId())
+                .fromUserId(request.getFromUserId())
+                .fromUserMail(request.getFromUserMail())
+                .toUserId(request.getToUserId())
+                .toUserMail(request.getToUserMail())
+                .amount(request.getAmount())
+                .timestamp(LocalDateTime.now())
+                .eventId(UUID.randomUUID().toString())
+                .build();
+    }
+}
@@ -2,6 +2,9 @@ package com.example.mhpractice.features.wallet.event;
 
 import java.math.BigDecimal;
 import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +14,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class TransferRequestEvent {
 
     private UUID fromWalletId;
@@ -18,6 +22,17 @@ public class TransferRequestEvent {
     private BigDecimal amount;
     private String transactionId;
 
+    // Participants, filled by WalletServiceImpl.initiateTransfer from the
+    // wallets' users it already loaded, and copied into the result events so
+    // that notification consumers never have to look them up (null on pre-v1
+    // messages)
+    private UUID fromUserId;
+    private String fromUserMail;
+    private String fromUserName;
+    private UUID toUserId;
+    private String toUserMail;
+    private String toUserName;
+
     // Helper factory method
     public static TransferRequestEvent of(UUID fromWalletId, UUID toWalletId, BigDecimal amount, String transactionId) {
         return TransferRequestEvent.builder()
@@ -27,4 +42,4 @@ public class TransferRequestEvent {
                 .transactionId(transactionId)
                 .build();
     }
-}
\ No newline at end of file
+}
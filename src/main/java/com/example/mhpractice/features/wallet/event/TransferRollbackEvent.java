@@ -0,0 +1,51 @@
+package com.example.mhpractice.features.wallet.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published on transfer.events.rollback. Self-contained, see TransferSuccessEvent.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TransferRollbackEvent {
+
+    public static final int VERSION = 1;
+
+    @Builder.Default
+    private int version = VERSION; // Payload schema version
+    private String transactionId; // Idempotency key
+    private String reason; // Cancel reason
+    private UUID fromWalletId;
+    private UUID toWalletId;
+    private String fromUserMail;
+    private String toUserMail;
+    private BigDecimal amount;
+    private LocalDateTime timestamp; // When event occurred
+    private String eventId; // Unique event ID
+
+    public static TransferRollbackEvent of(TransferRequestEvent request, String reason) {
+        return TransferRollbackEvent.builder()
+                .transactionId(request.getTransactionId())
+                .reason(reason)
+                .fromWalletId(request.getFromWalletId())
+                .toWalletId(request.getToWalletId())
+                .fromUserMail(request.getFromUserMail())
+                .toUserMail(request.getToUserMail())
+                .amount(request.getAmount())
+                .timestamp(LocalDateTime.now())
+                .eventId(UUID.randomUUID().toString())
+                .build();
+    }
+}
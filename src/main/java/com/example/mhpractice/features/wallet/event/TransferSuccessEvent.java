@@ -3,20 +3,41 @@ package com.example.mhpractice.features.wallet.event;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Published on transfer.events.success.
+ *
+ * Self-contained: carries everything notification/audit consumers need, so
+ * they never read the database. Versioning: fields are only ever added
+ * (consumers ignore unknown ones), bump VERSION when adding.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class TransferSuccessEvent {
 
+    public static final int VERSION = 1;
+
+    @Builder.Default
+    private int version = VERSION; // Payload schema version
     private String transactionId; // Idempotency key
     private UUID fromWalletId; // Sender wallet
     private UUID toWalletId; // Receiver wallet (needed for next step!)
+    private UUID fromUserId; // Sender (SSE channel)
+    private String fromUserMail;
+    private String fromUserName;
+    private UUID toUserId; // Receiver
+    private String toUserMail;
+    private String toUserName;
     private BigDecimal amount; // Transfer amount
     private LocalDateTime timestamp; // When event occurred
     private String eventId; // Unique event ID
@@ -32,4 +53,21 @@ public class TransferSuccessEvent {
                 .eventId(UUID.randomUUID().toString())
                 .build();
     }
-}
\ No newline at end of file
+
+    public static TransferSuccessEvent of(TransferRequestEvent request) {
+        return TransferSuccessEvent.builder()
+                .transactionId(request.getTransactionId())
+                .fromWalletId(request.getFromWalletId())
+                .toWalletId(request.getToWalletId())
+                .fromUserId(request.getFromUserId())
+                .fromUserMail(request.getFromUserMail())
+                .fromUserName(request.getFromUserName())
+                .toUserId(request.getToUserId())
+                .toUserMail(request.getToUserMail())
+                .toUserName(request.getToUserName())
+                .amount(request.getAmount())
+                .timestamp(LocalDateTime.now())
+                .eventId(UUID.randomUUID().toString())
+                .build();
+    }
+}
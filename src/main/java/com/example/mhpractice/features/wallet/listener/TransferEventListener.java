@@ -1,12 +1,19 @@
 package com.example.mhpractice.features.wallet.listener;
 
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import com.example.mhpractice.common.kafka.KeyOrderedDispatcher;
+import com.example.mhpractice.common.kafka.RetryTopics;
 import com.example.mhpractice.common.service.AuditService;
+import com.example.mhpractice.features.wallet.event.TransferFailedEvent;
 import com.example.mhpractice.features.wallet.event.TransferRequestEvent;
-import com.example.mhpractice.features.wallet.model.Transaction;
-import com.example.mhpractice.features.wallet.repository.TransactionRepository;
+import com.example.mhpractice.features.wallet.event.TransferRollbackEvent;
+import com.example.mhpractice.features.wallet.event.TransferSuccessEvent;
 import com.example.mhpractice.features.wallet.service.TransferOrchestrator;
 import com.example.mhpractice.features.notification.service.SseService;
 
@@ -19,63 +26,128 @@ import lombok.extern.slf4j.Slf4j;
 public class TransferEventListener {
 
     private final TransferOrchestrator transferOrchestrator;
-    private final TransactionRepository transactionRepository;
     // private final SlackService slackService; // can implement alert to slack app
     private final AuditService auditService;
     private final SseService sseService;
+    private final KeyOrderedDispatcher keyOrderedDispatcher;
+    private final RetryTopics retryTopics;
 
-    @KafkaListener(topics = "transfer.events.request", groupId = "wallet-service-group")
+    // Only one of the two request listeners runs, see app.kafka.transfer-batch.enabled
+    @KafkaListener(topics = "transfer.events.request", groupId = "wallet-service-group", concurrency = "${app.kafka.listeners.transfer-request.concurrency}", autoStartup = "#{!${app.kafka.transfer-batch.enabled}}")
     public void handleTransferRequest(TransferRequestEvent event) {
         log.info("📨 Processing transfer request");
-        transferOrchestrator.executeTransfer(event.getFromWalletId(), event.getToWalletId(), event.getAmount(),
-                event.getTransactionId());
+        transferOrchestrator.executeTransfer(event);
     }
 
-    @KafkaListener(topics = "transfer.events.success", groupId = "notification-group")
-    public void handleTransferSuccess(String transactionId) {
-        log.info("🎉 Transfer successful: {}", transactionId);
-        Transaction txn = transactionRepository.findByTransactionId(transactionId).orElse(null);
-        if (txn != null) {
-            auditService.logTransferSuccess(txn);
-
-            // Notify Sender
-            if (txn.getFromWallet() != null && txn.getFromWallet().getUser() != null) {
-                String userId = txn.getFromWallet().getUser().getId().toString();
-                sseService.send(userId, "TRANSFER_SUCCESS",
-                        "Transfer to " + txn.getToWallet().getUser().getName() + " successful!");
-            }
-        }
+    @KafkaListener(topics = "transfer.events.request", groupId = "wallet-service-group", concurrency = "${app.kafka.listeners.transfer-request.concurrency}", containerFactory = "batchKafkaListenerContainerFactory", autoStartup = "${app.kafka.transfer-batch.enabled}")
+    public void handleTransferRequestBatch(List<TransferRequestEvent> events) {
+        log.info("📨 Processing transfer request batch: {} records", events.size());
+        transferOrchestrator.executeTransferBatch(events);
+    }
+
+    // =====================================================================
+    // Notification listeners: single-record and batch variants, only one of
+    // each pair runs, see app.kafka.notification-batch.enabled.
+    // Result events are self-contained, so these are pure stream processors:
+    // no database reads, only audit + SSE fan-out per record.
+    // Batch variants fan records out to virtual threads per key (transaction
+    // id), see KeyOrderedDispatcher.
+    // =====================================================================
+
+    @KafkaListener(topics = "transfer.events.success", groupId = "notification-group", concurrency = "${app.kafka.listeners.notification.concurrency}", autoStartup = "#{!${app.kafka.notification-batch.enabled}}")
+    public void handleTransferSuccess(TransferSuccessEvent event) {
+        log.info("🎉 Transfer successful: {}", event.getTransactionId());
+        onTransferSuccess(event);
+    }
+
+    @KafkaListener(topics = "transfer.events.success", groupId = "notification-group", concurrency = "${app.kafka.listeners.notification.concurrency}", containerFactory = "batchKafkaListenerContainerFactory", autoStartup = "${app.kafka.notification-batch.enabled}")
+    public void handleTransferSuccessBatch(List<ConsumerRecord<String, TransferSuccessEvent>> records) {
+        log.info("🎉 Transfer successful batch: {} records", records.size());
+        keyOrderedDispatcher.dispatch(records, this::onTransferSuccess);
+    }
+
+    @KafkaListener(topics = "transfer.events.failed", groupId = "notification-group", concurrency = "${app.kafka.listeners.notification.concurrency}", autoStartup = "#{!${app.kafka.notification-batch.enabled}}")
+    public void handleTransferFailed(TransferFailedEvent event) {
+        log.error("❌ Transfer failed: {}", event.getTransactionId());
+        onTransferFailed(event);
+    }
+
+    @KafkaListener(topics = "transfer.events.failed", groupId = "notification-group", concurrency = "${app.kafka.listeners.notification.concurrency}", containerFactory = "batchKafkaListenerContainerFactory", autoStartup = "${app.kafka.notification-batch.enabled}")
+    public void handleTransferFailedBatch(List<ConsumerRecord<String, TransferFailedEvent>> records) {
+        log.error("❌ Transfer failed batch: {} records", records.size());
+        keyOrderedDispatcher.dispatch(records, this::onTransferFailed);
+    }
+
+    @KafkaListener(topics = "transfer.events.rollback", groupId = "notification-group", concurrency = "${app.kafka.listeners.notification.concurrency}", autoStartup = "#{!${app.kafka.notification-batch.enabled}}")
+    public void handleTransferRollback(TransferRollbackEvent event) {
+        log.warn("⚠️ Transfer rolled back: {}", event.getTransactionId());
+        onTransferRollback(event);
     }
 
-    @KafkaListener(topics = "transfer.events.failed", groupId = "notification-group")
-    public void handleTransferFailed(String transactionId) {
-        log.error("❌ Transfer failed: {}", transactionId);
-        Transaction txn = transactionRepository.findByTransactionId(transactionId).orElse(null);
-        if (txn != null) {
-            auditService.logTransferFailed(txn.getTransactionId(), txn.getCancelReason());
-
-            // Notify Sender
-            if (txn.getFromWallet() != null && txn.getFromWallet().getUser() != null) {
-                String userId = txn.getFromWallet().getUser().getId().toString();
-                sseService.send(userId, "TRANSFER_FAILED",
-                        "Transfer " + transactionId + " failed: " + txn.getCancelReason());
+    @KafkaListener(topics = "transfer.events.rollback", groupId = "notification-group", concurrency = "${app.kafka.listeners.notification.concurrency}", containerFactory = "batchKafkaListenerContainerFactory", autoStartup = "${app.kafka.notification-batch.enabled}")
+    public void handleTransferRollbackBatch(List<ConsumerRecord<String, TransferRollbackEvent>> records) {
+        log.warn("⚠️ Transfer rolled back batch: {} records", records.size());
+        keyOrderedDispatcher.dispatch(records, this::onTransferRollback);
+    }
+
+    // =====================================================================
+    // Retry tiers: records that failed above are re-published to
+    // <topic>.retry-N and re-run here once the tier delay elapsed; after the
+    // last tier they land in <topic>.dlt (see RetryTopics, DeadLetterReplayService).
+    // =====================================================================
+
+    @KafkaListener(topics = "#{@retryTopics.retryTopics('transfer.events.request')}", groupId = "wallet-service-group", containerFactory = "retryKafkaListenerContainerFactory")
+    public void retryTransferRequest(ConsumerRecord<String, TransferRequestEvent> record, Acknowledgment ack) {
+        retryTopics.runWhenDue(record, ack, () -> {
+            log.info("🔁 Retrying transfer request from {}", record.topic());
+            transferOrchestrator.executeTransfer(record.value());
+        });
+    }
+
+    @KafkaListener(topics = "#{@retryTopics.retryTopics('transfer.events.success', 'transfer.events.failed', 'transfer.events.rollback')}", groupId = "notification-group", containerFactory = "retryKafkaListenerContainerFactory")
+    public void retryNotification(ConsumerRecord<String, Object> record, Acknowledgment ack) {
+        retryTopics.runWhenDue(record, ack, () -> {
+            log.info("🔁 Retrying notification from {}", record.topic());
+            switch (record.value()) {
+                case TransferSuccessEvent event -> onTransferSuccess(event);
+                case TransferFailedEvent event -> onTransferFailed(event);
+                case TransferRollbackEvent event -> onTransferRollback(event);
+                default -> log.warn("Unexpected notification payload on {}: {}", record.topic(), record.value());
             }
-        } else {
-            auditService.logTransferFailed(transactionId, "Unknown reason");
+        });
+    }
+
+    // =====================================================================
+    // Per-record work
+    // =====================================================================
+
+    private void onTransferSuccess(TransferSuccessEvent event) {
+        auditService.logTransferSuccess(event);
+
+        // Notify Sender
+        if (event.getFromUserId() != null) {
+            String receiver = event.getToUserName() != null ? event.getToUserName() : event.getToUserMail();
+            sseService.send(event.getFromUserId().toString(), "TRANSFER_SUCCESS",
+                    "Transfer to " + receiver + " successful!");
         }
     }
 
-    @KafkaListener(topics = "transfer.events.rollback", groupId = "notification-group")
-    public void handleTransferRollback(String transactionId) {
-        log.warn("⚠️ Transfer rolled back: {}", transactionId);
+    private void onTransferFailed(TransferFailedEvent event) {
+        String reason = event.getReason() != null ? event.getReason() : "Unknown reason";
+        auditService.logTransferFailed(event.getTransactionId(), reason);
 
-        // Log rollback for compliance
-        Transaction txn = transactionRepository.findByTransactionId(transactionId).orElse(null);
-        if (txn != null) {
-            // slackService.alertOps("Transfer rollback: " + transactionId + " - " +
-            // txn.getCancelReason());
-            auditService.logRollback(txn);
+        // Notify Sender
+        if (event.getFromUserId() != null) {
+            sseService.send(event.getFromUserId().toString(), "TRANSFER_FAILED",
+                    "Transfer " + event.getTransactionId() + " failed: " + reason);
         }
+    }
+
+    private void onTransferRollback(TransferRollbackEvent event) {
+        // Log rollback for compliance
+        // slackService.alertOps("Transfer rollback: " + event.getTransactionId() + " - " +
+        // event.getReason());
+        auditService.logRollback(event);
 
         // TODO: Alert ops team (Slack integration)
     }
@@ -0,0 +1,62 @@
+package com.example.mhpractice.features.wallet.listener;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.example.mhpractice.features.wallet.event.TransferFailedEvent;
+import com.example.mhpractice.features.wallet.event.TransferSuccessEvent;
+import com.example.mhpractice.features.wallet.model.Transaction.TransferStatus;
+import com.example.mhpractice.features.wallet.service.TransferStatusRegistry;
+import com.example.mhpractice.features.wallet.service.result.TransferStatusResult;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feeds TransferStatusRegistry from the result topics.
+ *
+ * Unlike notification-group, every instance reads every record: the group id
+ * is per instance (app.wallet.transfer-status.instance-id, stable across
+ * restarts so groups don't pile up) and a new group starts at the latest
+ * offset, since waiters only care about transfers completing from now on.
+ *
+ * A failure is read from transfer.events.failed only: it is emitted on every
+ * failure path (the rollback event is not, and has no ordering with it), and
+ * maps to CANCELLED, the status the record has in the DB.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TransferStatusListener {
+
+    private final TransferStatusRegistry transferStatusRegistry;
+
+    @KafkaListener(topics = { "transfer.events.success", "transfer.events.failed" },
+            groupId = "transfer-status-${app.wallet.transfer-status.instance-id}", properties = "auto.offset.reset=latest")
+    public void handleTransferResult(Object event) {
+        try {
+            TransferStatusResult result = switch (event) {
+                case TransferSuccessEvent success -> TransferStatusResult.builder()
+                        .transactionId(success.getTransactionId())
+                        .status(TransferStatus.SUCCESS.name())
+                        .amount(success.getAmount())
+                        .completed(true)
+                        .build();
+                case TransferFailedEvent failed -> TransferStatusResult.builder()
+                        .transactionId(failed.getTransactionId())
+                        .status(TransferStatus.CANCELLED.name())
+                        .amount(failed.getAmount())
+                        .reason(failed.getReason())
+                        .completed(true)
+                        .build();
+                default -> null;
+            };
+            if (result != null) {
+                transferStatusRegistry.complete(result);
+            }
+        } catch (Exception e) {
+            // Waiters fall back to the DB on timeout, never retry/dead-letter this
+            log.warn("Failed to record transfer status: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.mhpractice.features.wallet.lock;
+
+import java.util.Collection;
+
+/**
+ * Local stripe first, then the distributed lock.
+ *
+ * Threads on the same node wait on the in-process lock, so only one thread
+ * per node (per stripe) is ever talking to Redis for a given wallet.
+ */
+public class HybridWalletLockManager implements WalletLockManager {
+
+    private final WalletLockManager local;
+    private final WalletLockManager remote;
+
+    public HybridWalletLockManager(WalletLockManager local, WalletLockManager remote) {
+        this.local = local;
+        this.remote = remote;
+    }
+
+    @Override
+    public LockHandle lock(Collection<String> keys) {
+        LockHandle localHandle = local.lock(keys);
+        try {
+            LockHandle remoteHandle = remote.lock(keys);
+            return () -> {
+                try {
+                    remoteHandle.unlock();
+                } finally {
+                    localHandle.unlock();
+                }
+            };
+        } catch (RuntimeException e) {
+            localHandle.unlock();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.mhpractice.features.wallet.lock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-process striped locks. A fixed pool of ReentrantLocks, keys are hashed
+ * onto a stripe, so memory stays bounded no matter how many wallets exist.
+ *
+ * Two keys may share a stripe, so multi-key locking orders by STRIPE index
+ * (not by key) to stay deadlock-free.
+ *
+ * Only correct when a single node writes a wallet (single instance, or
+ * partition-affine consumers).
+ */
+public class LocalStripedWalletLockManager extends MeteredWalletLockManager {
+
+    private final ReentrantLock[] stripes;
+
+    public LocalStripedWalletLockManager(int stripeCount, MeterRegistry meterRegistry) {
+        super(meterRegistry, "local");
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public LockHandle lock(Collection<String> keys) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (String key : keys) {
+            indexes.add(stripeIndex(key));
+        }
+
+        List<ReentrantLock> locks = new ArrayList<>();
+        for (int index : indexes) {
+            ReentrantLock lock = stripes[index];
+            acquire(lock);
+            locks.add(lock);
+        }
+        return () -> release(locks);
+    }
+
+    private void acquire(ReentrantLock lock) {
+        long start = System.nanoTime();
+        if (lock.tryLock()) {
+            recordAcquire(start, false);
+            return;
+        }
+        lock.lock();
+        recordAcquire(start, true);
+    }
+
+    private void release(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    private int stripeIndex(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16); // spread high bits, same as HashMap
+        return Math.floorMod(hash, stripes.length);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.mhpractice.features.wallet.lock;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Shared metrics for lock backends.
+ *
+ * wallet.lock.acquire{backend, contended}
+ * - contended=false: lock was free, acquired on the first try
+ * - contended=true: caller had to wait, latency = time spent waiting
+ */
+abstract class MeteredWalletLockManager implements WalletLockManager {
+
+    private final MeterRegistry meterRegistry;
+    private final String backend;
+
+    protected MeteredWalletLockManager(MeterRegistry meterRegistry, String backend) {
+        this.meterRegistry = meterRegistry;
+        this.backend = backend;
+    }
+
+    protected void recordAcquire(long startNanos, boolean contended) {
+        Timer.builder("wallet.lock.acquire")
+                .description("Wallet lock acquire latency")
+                .tag("backend", backend)
+                .tag("contended", String.valueOf(contended))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
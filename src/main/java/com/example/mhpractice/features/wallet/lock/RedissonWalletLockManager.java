@@ -0,0 +1,70 @@
+package com.example.mhpractice.features.wallet.lock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Distributed locks through Redisson. Keys are locked in sorted order.
+ */
+public class RedissonWalletLockManager extends MeteredWalletLockManager {
+
+    private final RedissonClient redissonClient;
+    private final long leaseMs;
+
+    public RedissonWalletLockManager(RedissonClient redissonClient, long leaseMs, MeterRegistry meterRegistry) {
+        super(meterRegistry, "redisson");
+        this.redissonClient = redissonClient;
+        this.leaseMs = leaseMs;
+    }
+
+    @Override
+    public LockHandle lock(Collection<String> keys) {
+        List<RLock> locks = new ArrayList<>();
+        try {
+            for (String key : new TreeSet<>(keys)) {
+                RLock lock = redissonClient.getLock(key);
+                acquire(lock);
+                locks.add(lock);
+            }
+        } catch (RuntimeException e) {
+            release(locks);
+            throw e;
+        }
+        return () -> release(locks);
+    }
+
+    private void acquire(RLock lock) {
+        long start = System.nanoTime();
+        try {
+            // Fast path: free lock, no waiting
+            if (lock.tryLock(0, leaseMs, TimeUnit.MILLISECONDS)) {
+                recordAcquire(start, false);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while acquiring lock " + lock.getName(), e);
+        }
+
+        lock.lock(leaseMs, TimeUnit.MILLISECONDS);
+        recordAcquire(start, true);
+    }
+
+    private void release(List<RLock> locks) {
+        // Release in reverse order of acquisition
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            RLock lock = locks.get(i);
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.mhpractice.features.wallet.lock;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lock abstraction for wallet operations.
+ *
+ * Modes (app.wallet.lock.mode):
+ * - REDISSON: distributed lock per key (multi-node safe, 1+ Redis round-trip)
+ * - LOCAL: striped in-process ReentrantLock (single node or partition-affine)
+ * - HYBRID: local stripe first, then the Redisson lock. Threads of the same
+ * node queue locally instead of all spinning on Redis.
+ *
+ * Implementations must acquire multiple keys in a deterministic order so two
+ * callers locking overlapping keys can never deadlock.
+ */
+public interface WalletLockManager {
+
+    enum Mode {
+        REDISSON,
+        LOCAL,
+        HYBRID
+    }
+
+    LockHandle lock(Collection<String> keys);
+
+    default LockHandle lockWallet(UUID walletId) {
+        return lock(List.of("wallet:" + walletId));
+    }
+
+    default LockHandle lockWallets(Collection<UUID> walletIds) {
+        return lock(walletIds.stream().map(walletId -> "wallet:" + walletId).toList());
+    }
+
+    default LockHandle lockTransaction(String transactionId) {
+        return lock(List.of("transaction:" + transactionId));
+    }
+
+    /**
+     * Releases everything acquired by one lock() call.
+     */
+    @FunctionalInterface
+    interface LockHandle {
+
+        LockHandle NONE = () -> {
+        };
+
+        void unlock();
+    }
+}
@@ -16,6 +16,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -25,7 +26,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "transactions")
+// Same indexes as V5 migration, so ddl-auto creates them on a fresh schema
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_from_wallet_created", columnList = "from_wallet_id, created_at, id"),
+        @Index(name = "idx_transactions_to_wallet_created", columnList = "to_wallet_id, created_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
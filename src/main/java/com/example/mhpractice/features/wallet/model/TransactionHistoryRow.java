@@ -0,0 +1,30 @@
+package com.example.mhpractice.features.wallet.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a transactions row for history listing.
+ * Avoids hydrating Transaction (and its eager wallet joins) per row.
+ */
+public interface TransactionHistoryRow {
+
+    UUID getId();
+
+    String getTransactionId();
+
+    String getFromUserMail();
+
+    String getToUserMail();
+
+    BigDecimal getAmount();
+
+    String getStatus();
+
+    String getCreditStatus();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,30 @@
+package com.example.mhpractice.features.wallet.model;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Read-only view of a wallet's balances + version.
+ *
+ * Loaded through a JPQL constructor expression, so it is never cached in the
+ * persistence context and always reflects the latest committed row. Used by
+ * the optimistic mode: read snapshot -> compute new values -> compare-and-set
+ * on version.
+ */
+@Value
+@With
+public class WalletSnapshot {
+
+    UUID id;
+    BigDecimal balance;
+    BigDecimal frozenBalance;
+    BigDecimal unreleasedBalance;
+    Long version;
+
+    public boolean hasSufficientBalance(BigDecimal amount) {
+        return balance.subtract(frozenBalance).compareTo(amount) >= 0;
+    }
+}
@@ -1,14 +1,23 @@
 package com.example.mhpractice.features.wallet.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
 import com.example.mhpractice.features.wallet.model.Transaction;
+import com.example.mhpractice.features.wallet.model.TransactionHistoryRow;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
 
@@ -16,12 +25,71 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
 
     boolean existsByTransactionId(String transactionId);
 
+    List<Transaction> findAllByTransactionIdIn(Collection<String> transactionIds);
+
     @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END " +
             "FROM Transaction t WHERE t.transactionId = :transactionId " +
             "AND t.creditStatus = 'SUCCESS'")
     boolean isCreditCompleted(@Param("transactionId") String transactionId);
 
-    @Query("SELECT t FROM Transaction t WHERE t.fromWallet.id = :walletId OR t.toWallet.id = :walletId ORDER BY t.createdAt DESC")
-    List<Transaction> findAllByWalletId(@Param("walletId") UUID walletId);
+    @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END " +
+            "FROM Transaction t WHERE t.transactionId = :transactionId " +
+            "AND (t.fromWallet.id = :walletId OR t.toWallet.id = :walletId)")
+    boolean isParticipant(@Param("transactionId") String transactionId, @Param("walletId") UUID walletId);
+
+    /**
+     * Keyset page of a wallet's history, newest first, strictly after the
+     * (createdAt, id) cursor. Each UNION branch walks its own
+     * (wallet, created_at, id) index and stops after :limit rows, so cost is
+     * O(limit) no matter how deep the page is.
+     */
+    @Query(value = "SELECT * FROM ("
+            + " (SELECT t.id AS \"id\", t.transaction_id AS \"transactionId\","
+            + " t.from_user_mail AS \"fromUserMail\", t.to_user_mail AS \"toUserMail\","
+            + " t.amount AS \"amount\", t.status AS \"status\", t.credit_status AS \"creditStatus\","
+            + " t.created_at AS \"createdAt\", t.updated_at AS \"updatedAt\""
+            + " FROM transactions t"
+            + " WHERE t.from_wallet_id = :walletId AND (t.created_at, t.id) < (:createdAt, :id)"
+            + " ORDER BY t.created_at DESC, t.id DESC LIMIT :limit)"
+            + " UNION ALL"
+            + " (SELECT t.id, t.transaction_id, t.from_user_mail, t.to_user_mail,"
+            + " t.amount, t.status, t.credit_status, t.created_at, t.updated_at"
+            + " FROM transactions t"
+            + " WHERE t.to_wallet_id = :walletId AND t.from_wallet_id IS DISTINCT FROM :walletId"
+            + " AND (t.created_at, t.id) < (:createdAt, :id)"
+            + " ORDER BY t.created_at DESC, t.id DESC LIMIT :limit)"
+            + ") h ORDER BY h.\"createdAt\" DESC, h.\"id\" DESC LIMIT :limit", nativeQuery = true)
+    List<TransactionHistoryRow> findHistoryPage(@Param("walletId") UUID walletId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit);
+
+    /**
+     * Full history of a wallet, oldest first, read through a server-side cursor.
+     * Must be consumed inside a read-only transaction and closed afterwards;
+     * at most 500 rows are buffered by the driver at a time.
+     *
+     * Split like findHistoryPage: each UNION branch is an index scan in
+     * (created_at, id) order, merged (Merge Append) instead of one OR scan
+     * that has to sort the wallet's whole history before the first row.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT * FROM ("
+            + " SELECT t.id AS \"id\", t.transaction_id AS \"transactionId\","
+            + " t.from_user_mail AS \"fromUserMail\", t.to_user_mail AS \"toUserMail\","
+            + " t.amount AS \"amount\", t.status AS \"status\", t.credit_status AS \"creditStatus\","
+            + " t.created_at AS \"createdAt\", t.updated_at AS \"updatedAt\""
+            + " FROM transactions t"
+            + " WHERE t.from_wallet_id = :walletId"
+            + " UNION ALL"
+            + " SELECT t.id, t.transaction_id, t.from_user_mail, t.to_user_mail,"
+            + " t.amount, t.status, t.credit_status, t.created_at, t.updated_at"
+            + " FROM transactions t"
+            + " WHERE t.to_wallet_id = :walletId AND t.from_wallet_id IS DISTINCT FROM :walletId"
+            + ") h ORDER BY h.\"createdAt\", h.\"id\"", nativeQuery = true)
+    Stream<TransactionHistoryRow> streamHistory(@Param("walletId") UUID walletId);
 
 }
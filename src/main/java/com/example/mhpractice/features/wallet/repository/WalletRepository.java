@@ -1,14 +1,19 @@
 package com.example.mhpractice.features.wallet.repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.example.mhpractice.features.wallet.model.Wallet;
+import com.example.mhpractice.features.wallet.model.WalletSnapshot;
 
 import jakarta.persistence.LockModeType;
 
@@ -17,12 +22,91 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
     @Query("SELECT w FROM Wallet w WHERE w.user.id = :userId")
     Optional<Wallet> findByUserId(@Param("userId") UUID userId);
 
+    @Query("SELECT w FROM Wallet w WHERE w.user.email = :email")
+    Optional<Wallet> findByUserEmail(@Param("email") String email);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT w FROM Wallet w WHERE w.id = :walletId")
     Optional<Wallet> findByIdWithLock(@Param("walletId") UUID walletId);
 
+    // Locks every wallet in a single statement, always in id order (deadlock-safe)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.id IN :walletIds ORDER BY w.id")
+    List<Wallet> findAllByIdWithLock(@Param("walletIds") Collection<UUID> walletIds);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT w FROM Wallet w WHERE w.user.id = :userId")
     Optional<Wallet> findWalletByUserIdForUpdate(@Param("userId") UUID userId);
 
+    // ========================================
+    // Optimistic mode (no row lock held while reading)
+    // ========================================
+
+    @Query("SELECT new com.example.mhpractice.features.wallet.model.WalletSnapshot("
+            + "w.id, w.balance, w.frozenBalance, w.unreleasedBalance, w.version) "
+            + "FROM Wallet w WHERE w.id = :walletId")
+    Optional<WalletSnapshot> findSnapshotById(@Param("walletId") UUID walletId);
+
+    // Compare-and-set on version, returns 0 if another writer got there first
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = :balance, w.frozenBalance = :frozenBalance, "
+            + "w.unreleasedBalance = :unreleasedBalance, w.version = w.version + 1, w.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE w.id = :walletId AND w.version = :version")
+    int updateBalancesIfVersion(@Param("walletId") UUID walletId,
+            @Param("balance") BigDecimal balance,
+            @Param("frozenBalance") BigDecimal frozenBalance,
+            @Param("unreleasedBalance") BigDecimal unreleasedBalance,
+            @Param("version") Long version);
+
+    // ========================================
+    // Set-based mutations (no entity hydration)
+    // ========================================
+    // Each statement row-locks only for its own duration, checks are folded into
+    // the WHERE clause, and the result is the number of affected rows (0 = check
+    // failed or wallet missing). version is bumped so optimistic readers see it.
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount, w.version = w.version + 1, "
+            + "w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :walletId")
+    int credit(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :amount, w.version = w.version + 1, "
+            + "w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :walletId AND w.balance - w.frozenBalance >= :amount")
+    int debit(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.frozenBalance = w.frozenBalance + :amount, w.version = w.version + 1, "
+            + "w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :walletId AND w.balance - w.frozenBalance >= :amount")
+    int freeze(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.frozenBalance = w.frozenBalance - :amount, w.version = w.version + 1, "
+            + "w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :walletId AND w.frozenBalance >= :amount")
+    int unfreeze(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.unreleasedBalance = w.unreleasedBalance + :amount, w.version = w.version + 1, "
+            + "w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :walletId")
+    int creditUnreleased(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.unreleasedBalance = w.unreleasedBalance - :amount, w.version = w.version + 1, "
+            + "w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :walletId AND w.unreleasedBalance >= :amount")
+    int revokeUnreleased(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    // Confirm, sender side: frozen amount leaves the wallet
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.frozenBalance = w.frozenBalance - :amount, w.balance = w.balance - :amount, "
+            + "w.version = w.version + 1, w.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE w.id = :walletId AND w.frozenBalance >= :amount")
+    int clearFrozen(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    // Confirm, receiver side: unreleased amount becomes spendable
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.unreleasedBalance = w.unreleasedBalance - :amount, w.balance = w.balance + :amount, "
+            + "w.version = w.version + 1, w.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE w.id = :walletId AND w.unreleasedBalance >= :amount")
+    int releaseUnreleased(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
 }
@@ -0,0 +1,137 @@
+package com.example.mhpractice.features.wallet.service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import com.example.mhpractice.common.exception.BusinessException;
+import com.example.mhpractice.common.kafka.RetryTopics;
+import com.example.mhpractice.features.wallet.event.TransferRequestEvent;
+import com.example.mhpractice.features.wallet.service.result.DeadLetterReplayResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Re-drives transfer.events.request.dlt into the orchestrator.
+ *
+ * 1. Snapshot the DLT end offsets, so records dead-lettered during the replay
+ *    wait for the next run.
+ * 2. Read from the replay group's committed offsets (earliest on first run)
+ *    and call TransferOrchestrator.executeTransfer per record.
+ * 3. Commit after every handled record, so a replay can be stopped and
+ *    resumed without re-driving anything twice.
+ *
+ * Business rejections (e.g. insufficient balance) are counted and committed.
+ * Any other error stops the replay at that record without committing it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeadLetterReplayService {
+
+    private static final String REPLAY_GROUP = "wallet-dlt-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+    private final TransferOrchestrator transferOrchestrator;
+    private final RetryTopics retryTopics;
+    private final MeterRegistry meterRegistry;
+
+    public DeadLetterReplayResult replayTransferRequests(int maxRecords) {
+        String topic = retryTopics.deadLetterTopic("transfer.events.request");
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.max(1, Math.min(maxRecords, 500)));
+
+        int replayed = 0;
+        int rejected = 0;
+        int skipped = 0;
+
+        try (Consumer<String, Object> consumer = consumerFactory.createConsumer(REPLAY_GROUP, "dlt-replay", null,
+                overrides)) {
+            // 1. Snapshot end offsets
+            List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                    .map(info -> new TopicPartition(topic, info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            // 2. Replay until every partition reached its snapshot or the limit
+            while (replayed + rejected + skipped < maxRecords && !reachedEnd(consumer, endOffsets)) {
+                Set<TopicPartition> rewound = new HashSet<>();
+                for (ConsumerRecord<String, Object> record : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (rewound.contains(partition)) {
+                        continue;
+                    }
+                    if (record.offset() >= endOffsets.get(partition)
+                            || replayed + rejected + skipped >= maxRecords) {
+                        // Not part of this run, rewind so the next run starts here
+                        consumer.seek(partition, record.offset());
+                        rewound.add(partition);
+                        continue;
+                    }
+
+                    if (record.value() instanceof TransferRequestEvent event) {
+                        try {
+                            transferOrchestrator.executeTransfer(event);
+                            replayed++;
+                        } catch (BusinessException e) {
+                            log.warn("DLT replay rejected txn={}: {}", event.getTransactionId(), e.getMessage());
+                            rejected++;
+                        } catch (Exception e) {
+                            log.error("DLT replay stopped at {}-{}@{}: {}", record.topic(), record.partition(),
+                                    record.offset(), e.getMessage());
+                            return result(topic, replayed, rejected, skipped, false);
+                        }
+                    } else {
+                        log.warn("DLT replay skipped {}-{}@{}: unexpected payload", record.topic(),
+                                record.partition(), record.offset());
+                        skipped++;
+                    }
+
+                    // 3. Commit per record
+                    consumer.commitSync(Map.of(partition, new OffsetAndMetadata(record.offset() + 1)));
+                }
+            }
+
+            return result(topic, replayed, rejected, skipped, reachedEnd(consumer, endOffsets));
+        }
+    }
+
+    private boolean reachedEnd(Consumer<String, Object> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(entry -> consumer.position(entry.getKey()) >= entry.getValue());
+    }
+
+    private DeadLetterReplayResult result(String topic, int replayed, int rejected, int skipped, boolean completed) {
+        meterRegistry.counter("kafka.dlt.replay", "result", "replayed").increment(replayed);
+        meterRegistry.counter("kafka.dlt.replay", "result", "rejected").increment(rejected);
+        meterRegistry.counter("kafka.dlt.replay", "result", "skipped").increment(skipped);
+        log.info("DLT replay {}: replayed={}, rejected={}, skipped={}, completed={}", topic, replayed, rejected,
+                skipped, completed);
+
+        return DeadLetterReplayResult.builder()
+                .topic(topic)
+                .replayed(replayed)
+                .rejected(rejected)
+                .skipped(skipped)
+                .completed(completed)
+                .build();
+    }
+}
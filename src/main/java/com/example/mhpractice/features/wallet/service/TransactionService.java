@@ -1,10 +1,36 @@
 package com.example.mhpractice.features.wallet.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import com.example.mhpractice.features.wallet.service.result.TransactionDetailsResult;
-import java.util.List;
+import com.example.mhpractice.features.wallet.service.result.TransactionHistoryPage;
+import com.example.mhpractice.features.wallet.service.result.TransferStatusResult;
 
 public interface TransactionService {
-    public List<TransactionDetailsResult> getTransactionHistory(String walletId);
+    public TransactionHistoryPage getTransactionHistory(String walletId, String cursor, int limit);
 
     public TransactionDetailsResult getTransactionDetails(String transactionId);
+
+    /**
+     * Current DB state of a transfer, the fallback of the status long-poll.
+     */
+    public TransferStatusResult getTransferStatus(String transactionId);
+
+    /**
+     * Throws TRANSACTION_NOT_FOUND unless the wallet is the sender or receiver,
+     * so other callers can't tell whether the transaction exists.
+     */
+    public void checkParticipant(String transactionId, String walletId);
+
+    /**
+     * Stream the wallet's whole history to {@code out}, row by row.
+     * Memory stays bounded by the JDBC fetch size, not by history length.
+     */
+    public void exportTransactionHistory(String walletId, ExportFormat format, OutputStream out) throws IOException;
+
+    public enum ExportFormat {
+        NDJSON,
+        CSV
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.mhpractice.features.wallet.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.mhpractice.common.service.OutboxService;
+import com.example.mhpractice.features.wallet.event.TransferFailedEvent;
+import com.example.mhpractice.features.wallet.event.TransferRequestEvent;
+import com.example.mhpractice.features.wallet.event.TransferRollbackEvent;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Terminal bookkeeping for a failed single transfer: cancel the record and
+ * write the failed + rollback outbox rows.
+ *
+ * Its own transaction (REQUIRES_NEW, separate bean so the proxy applies):
+ * the transfer's transaction is rolled back by the exception, and anything
+ * written there would be rolled back with it.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferFailureRecorder {
+
+    private final WalletService walletService;
+    private final OutboxService outboxService;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(TransferRequestEvent event, String reason) {
+        String transactionId = event.getTransactionId();
+
+        walletService.cancelTransfer(transactionId, reason);
+
+        outboxService.publish("transfer.events.failed", transactionId, TransferFailedEvent.of(event, reason));
+        outboxService.publish("transfer.events.rollback", transactionId, TransferRollbackEvent.of(event, reason));
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.mhpractice.features.wallet.service;
 
-import java.math.BigDecimal;
-import java.util.UUID;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.example.mhpractice.common.exception.BusinessException;
 import com.example.mhpractice.common.exception.ErrorCode;
+import com.example.mhpractice.common.service.OutboxService;
+import com.example.mhpractice.features.wallet.event.TransferFailedEvent;
+import com.example.mhpractice.features.wallet.event.TransferRequestEvent;
+import com.example.mhpractice.features.wallet.event.TransferSuccessEvent;
+import com.example.mhpractice.features.wallet.service.result.TransferBatchResult;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,51 +35,68 @@ public class TransferOrchestrator {
      * This ensures correctness, auditability, and easy debugging.
      */
     private final WalletService walletService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxService outboxService;
+    private final TransferFailureRecorder transferFailureRecorder;
     private final MeterRegistry meterRegistry;
 
     /**
+     * Uses the single-lock fast path: both wallets are locked once (UUID order)
+     * and freeze, credit and release are applied in one unit of work, instead of
+     * transferOut -> transferIn -> confirmTransfer each taking their own locks.
+     *
+     * Events go through the transactional outbox (OutboxService): they are
+     * rows of this DB transaction and OutboxRelay publishes them after commit,
+     * so the listener never waits on broker acks.
+     *
      * Scenario 1: Happy Path (Success)
-     * 1. DB Updates (transferOut, transferIn) execute.
-     * 2. Kafka Send executes (successfully queues message).
-     * 3. Method Ends → @Transactional commits the DB changes.
-     * Result: DB updated, Message sent. ✅ OK.
+     * 1. DB Updates (freeze, credit, release) execute.
+     * 2. Success event is written to the outbox.
+     * 3. Method Ends → @Transactional commits the DB changes + outbox row.
+     * Result: DB updated, Message relayed. ✅ OK.
      * 
-     * Scenario 2: DB Error
-     * 1. DB Updates fail (e.g., insufficient funds).
-     * 2. Exception thrown.
-     * 3. Kafka Send is SKIPPED (code jumps to catch).
-     * 4. DB Rolls back.
-     * Result: No DB change, No Message sent. ✅ OK.
+     * Scenario 2: Transfer fails (e.g. insufficient funds)
+     * 1. Exception thrown, success outbox row is SKIPPED (code jumps to catch).
+     * 2. DB Rolls back.
+     * 3. After the rollback, TransferFailureRecorder cancels the record and
+     * writes the failed + rollback outbox rows in a new transaction.
+     * Result: No balance change, record CANCELLED, failure relayed. ✅ OK.
      * 
-     * Scenario 3: Kafka Send Error
-     * 1. DB Updates execute OK.
-     * 2. Kafka Send fails (e.g., broker down).
-     * 3. Exception thrown.
-     * 4. Method Ends (with exception).
-     * 5. DB Transaction Rolls back (because exception bubbled up).
-     * Result: DB changes reverted, No Message sent. ✅ OK.
+     * Scenario 3: Broker down
+     * 1. DB Updates + outbox row commit OK.
+     * 2. OutboxRelay keeps retrying until the broker is back.
+     * Result: DB updated, Message delayed (not lost). ✅ OK.
      * 
+     * Scenario 4: Redelivery / retry of a processed request
+     * 1. Record is no longer PENDING (SUCCESS, or CANCELLED by an earlier failure).
+     * 2. walletService.transfer returns false, nothing is written.
+     * Result: No duplicate or false success event. ✅ OK.
+     * 
+     * Business rejections are final: KafkaConfig's error handler acks them
+     * instead of sending them through the retry tiers.
      */
     @Timed(value = "wallet.transfer.time", percentiles = { 0.5, 0.9, 0.95, 0.99 }, description = "Wallet transfer time")
     @Transactional
-    public void executeTransfer(UUID fromWalletId, UUID toWalletId, BigDecimal amount, String transactionId) {
+    public void executeTransfer(TransferRequestEvent event) {
+        String transactionId = event.getTransactionId();
         try {
             meterRegistry.counter("wallet.transfer.total", "status", "init").increment();
 
-            walletService.transferOut(fromWalletId, amount, transactionId);
-            walletService.transferIn(toWalletId, amount, transactionId);
-            walletService.confirmTransfer(transactionId);
+            // Redelivery of a SUCCESS/CANCELLED record: its terminal event was already written
+            if (!walletService.transfer(event.getFromWalletId(), event.getToWalletId(), event.getAmount(),
+                    transactionId)) {
+                log.info("Transfer already processed, skipping: txn={}", transactionId);
+                meterRegistry.counter("wallet.transfer.total", "status", "duplicate").increment();
+                return;
+            }
 
-            kafkaTemplate.send("transfer.events.success", transactionId);
+            outboxService.publish("transfer.events.success", transactionId, TransferSuccessEvent.of(event));
 
             // Metric: Transfer Success
             meterRegistry.counter("wallet.transfer.total", "status", "success").increment();
 
         } catch (BusinessException e) {
             log.error("Transfer failed: {}", e.getMessage());
-            rollBackTransfer(transactionId, e.getMessage());
-            kafkaTemplate.send("transfer.events.failed", transactionId);
+            recordFailureAfterRollback(event, e.getMessage());
 
             // Metric: Transfer Failed (Business Rule)
             meterRegistry.counter("wallet.transfer.total", "status", "failed", "reason", e.getErrorCode().name())
@@ -81,8 +106,7 @@ public class TransferOrchestrator {
 
         catch (Exception e) {
             log.error("Transfer failed: {}", e.getMessage());
-            kafkaTemplate.send("transfer.events.failed", transactionId);
-            rollBackTransfer(transactionId, e.getMessage());
+            recordFailureAfterRollback(event, e.getMessage());
 
             // Metric: Transfer Failed (Unexpected)
             meterRegistry.counter("wallet.transfer.total", "status", "rollback", "reason", "internal_error")
@@ -91,16 +115,73 @@ public class TransferOrchestrator {
         }
     }
 
-    private void rollBackTransfer(String transactionId, String reason) {
-        try {
-
-            walletService.cancelTransfer(transactionId, reason);
+    // Runs once this transaction has rolled back: its row locks are released
+    // and the failure rows can't be rolled back with it
+    private void recordFailureAfterRollback(TransferRequestEvent event, String reason) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordFailure(event, reason);
+            return;
+        }
 
-            kafkaTemplate.send("transfer.events.rollback", transactionId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    recordFailure(event, reason);
+                }
+            }
+        });
+    }
 
+    private void recordFailure(TransferRequestEvent event, String reason) {
+        try {
+            transferFailureRecorder.recordFailure(event, reason);
         } catch (Exception e) {
-            log.error("Rollback failed: {}", e.getMessage());
-            throw new BusinessException(ErrorCode.TRANSACTION_INTERNAL_ERROR);
+            // Record stays PENDING, a redelivery of the request retries it
+            log.error("Rollback failed for txn={}: {}", event.getTransactionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Micro-batch variant used by the batch listener.
+     *
+     * 1. All transfers in the poll are applied in ONE DB transaction.
+     * 2. Success/failed events for the whole batch are written to the outbox
+     * in that same transaction and relayed in batches by OutboxRelay.
+     *
+     * Business failures (e.g. insufficient balance) don't fail the batch, the
+     * record is cancelled and a failed event is emitted. Unexpected errors fail
+     * the whole batch, which is then redelivered (already processed records are
+     * skipped by the PENDING check).
+     */
+    @Timed(value = "wallet.transfer.batch.time", percentiles = { 0.5, 0.9, 0.95, 0.99 }, description = "Wallet transfer batch time")
+    @Transactional
+    public void executeTransferBatch(List<TransferRequestEvent> events) {
+        meterRegistry.counter("wallet.transfer.total", "status", "init").increment(events.size());
+
+        List<TransferBatchResult> results = walletService.transferBatch(events);
+
+        Map<String, TransferRequestEvent> requests = events.stream()
+                .collect(Collectors.toMap(TransferRequestEvent::getTransactionId, Function.identity(), (a, b) -> a));
+        for (TransferBatchResult result : results) {
+            TransferRequestEvent request = requests.get(result.getTransactionId());
+            if (result.isSuccess()) {
+                outboxService.publish("transfer.events.success", result.getTransactionId(),
+                        TransferSuccessEvent.of(request));
+            } else {
+                outboxService.publish("transfer.events.failed", result.getTransactionId(),
+                        TransferFailedEvent.of(request, result.getReason()));
+            }
+        }
+
+        for (TransferBatchResult result : results) {
+            if (result.isSuccess()) {
+                meterRegistry.counter("wallet.transfer.total", "status", "success").increment();
+            } else {
+                log.error("Transfer failed: {} - {}", result.getTransactionId(), result.getReason());
+                meterRegistry.counter("wallet.transfer.total", "status", "failed", "reason", "batch_rejected")
+                        .increment();
+            }
         }
     }
 }
@@ -0,0 +1,113 @@
+package com.example.mhpractice.features.wallet.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.mhpractice.features.wallet.service.result.TransferStatusResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory completion registry for transfer status long-polls.
+ *
+ * 1. Waiters register a future per request (await).
+ * 2. TransferStatusListener completes them from the success / failed /
+ *    rollback events (complete), and remembers the outcome for retention-ms
+ *    so a client that starts waiting just after completion returns at once.
+ * 3. Waiters that time out unregister (cancel) and fall back to the DB.
+ *
+ * Per instance only: every instance consumes the result topics with its own
+ * group (see TransferStatusListener), so any node can answer any transfer.
+ */
+@Slf4j
+@Component
+public class TransferStatusRegistry {
+
+    private final Map<String, List<CompletableFuture<TransferStatusResult>>> waiters = new ConcurrentHashMap<>();
+    private final Map<String, Completion> completed;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.wallet.transfer-status.retention-ms}")
+    private long retentionMs;
+
+    public TransferStatusRegistry(MeterRegistry meterRegistry,
+            @Value("${app.wallet.transfer-status.max-entries}") int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        // Insertion-ordered, oldest completion evicted first
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Completion> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        meterRegistry.gaugeMapSize("wallet.transfer.status.waiters", List.of(), waiters);
+    }
+
+    public CompletableFuture<TransferStatusResult> await(String transactionId) {
+        TransferStatusResult known = recent(transactionId);
+        if (known != null) {
+            meterRegistry.counter("wallet.transfer.status.wait", "result", "hit").increment();
+            return CompletableFuture.completedFuture(known);
+        }
+
+        CompletableFuture<TransferStatusResult> future = new CompletableFuture<>();
+        waiters.compute(transactionId, (id, list) -> {
+            List<CompletableFuture<TransferStatusResult>> futures = list != null ? list : new ArrayList<>();
+            futures.add(future);
+            return futures;
+        });
+
+        // Completed between the first check and registering
+        known = recent(transactionId);
+        if (known != null) {
+            cancel(transactionId, future);
+            future.complete(known);
+        }
+        return future;
+    }
+
+    public void complete(TransferStatusResult result) {
+        // Remember first, then wake waiters (await re-checks after registering).
+        // Failed + rollback both arrive for a failed transfer, the first one wins
+        Completion previous = completed.putIfAbsent(result.getTransactionId(),
+                new Completion(result, System.currentTimeMillis()));
+        TransferStatusResult first = previous != null ? previous.result() : result;
+
+        List<CompletableFuture<TransferStatusResult>> futures = waiters.remove(result.getTransactionId());
+        if (futures != null) {
+            futures.forEach(future -> future.complete(first));
+            meterRegistry.counter("wallet.transfer.status.wait", "result", "completed").increment(futures.size());
+        }
+    }
+
+    public void cancel(String transactionId, CompletableFuture<TransferStatusResult> future) {
+        waiters.computeIfPresent(transactionId, (id, futures) -> {
+            futures.remove(future);
+            return futures.isEmpty() ? null : futures;
+        });
+    }
+
+    private TransferStatusResult recent(String transactionId) {
+        Completion completion = completed.get(transactionId);
+        if (completion == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - completion.completedAt() > retentionMs) {
+            completed.remove(transactionId);
+            return null;
+        }
+        return completion.result();
+    }
+
+    private record Completion(TransferStatusResult result, long completedAt) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.mhpractice.features.wallet.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.LocalCachedMapOptions.EvictionPolicy;
+import org.redisson.api.LocalCachedMapOptions.ReconnectionStrategy;
+import org.redisson.api.LocalCachedMapOptions.SyncStrategy;
+import org.redisson.api.RLocalCachedMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.mhpractice.features.wallet.model.Wallet;
+import com.example.mhpractice.features.wallet.service.result.WalletBalanceResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-through cache for GET /api/v1/wallets/balance.
+ *
+ * Two Redisson local-cached maps (near cache in every node + Redis hash):
+ * - wallet:id-by-email email -> walletId (never changes, never invalidated)
+ * - wallet:balance walletId -> balance (evicted after every balance commit)
+ *
+ * Eviction goes through Redis pub/sub, so every node drops its local copy.
+ * Entries older than ttl-ms are treated as a miss, which bounds the classic
+ * cache-aside race (reader puts an old value right after a writer evicted).
+ *
+ * Redis being down never breaks the endpoint, it just falls back to the DB.
+ */
+@Slf4j
+@Component
+public class WalletBalanceCache {
+
+    private final RLocalCachedMap<String, String> walletIdByEmail;
+    private final RLocalCachedMap<String, CachedBalance> balanceByWalletId;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long ttlMs;
+
+    public WalletBalanceCache(RedissonClient redissonClient, MeterRegistry meterRegistry,
+            @Value("${app.wallet.balance-cache.enabled}") boolean enabled,
+            @Value("${app.wallet.balance-cache.local-size}") int localSize,
+            @Value("${app.wallet.balance-cache.ttl-ms}") long ttlMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+
+        this.walletIdByEmail = redissonClient.getLocalCachedMap("wallet:id-by-email",
+                new TypedJsonJacksonCodec(String.class, String.class),
+                LocalCachedMapOptions.<String, String>defaults()
+                        .cacheSize(localSize)
+                        .evictionPolicy(EvictionPolicy.LRU)
+                        .reconnectionStrategy(ReconnectionStrategy.CLEAR)
+                        .syncStrategy(SyncStrategy.INVALIDATE));
+
+        this.balanceByWalletId = redissonClient.getLocalCachedMap("wallet:balance",
+                new TypedJsonJacksonCodec(String.class, CachedBalance.class),
+                LocalCachedMapOptions.<String, CachedBalance>defaults()
+                        .cacheSize(localSize)
+                        .evictionPolicy(EvictionPolicy.LRU)
+                        .timeToLive(ttlMs, TimeUnit.MILLISECONDS)
+                        .reconnectionStrategy(ReconnectionStrategy.CLEAR)
+                        .syncStrategy(SyncStrategy.INVALIDATE));
+    }
+
+    public WalletBalanceResult get(String email, Supplier<Wallet> loader) {
+        if (!enabled) {
+            return toResult(loader.get());
+        }
+
+        try {
+            String walletId = walletIdByEmail.get(email);
+            if (walletId != null) {
+                CachedBalance cached = balanceByWalletId.get(walletId);
+                if (cached != null && System.currentTimeMillis() - cached.getCachedAt() < ttlMs) {
+                    meterRegistry.counter("wallet.balance.cache", "result", "hit").increment();
+                    return WalletBalanceResult.builder()
+                            .walletId(walletId)
+                            .balance(cached.getBalance())
+                            .build();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Balance cache read failed, falling back to DB: {}", e.getMessage());
+        }
+
+        meterRegistry.counter("wallet.balance.cache", "result", "miss").increment();
+        WalletBalanceResult result = toResult(loader.get());
+
+        try {
+            walletIdByEmail.fastPut(email, result.getWalletId());
+            balanceByWalletId.fastPut(result.getWalletId(),
+                    new CachedBalance(result.getBalance(), System.currentTimeMillis()));
+        } catch (RuntimeException e) {
+            log.warn("Balance cache write failed: {}", e.getMessage());
+        }
+
+        return result;
+    }
+
+    public void evictAfterCommit(UUID... walletIds) {
+        evictAfterCommit(List.of(walletIds));
+    }
+
+    /**
+     * Evict once the surrounding DB transaction has committed, so no node can
+     * re-cache the pre-commit balance. Runs immediately outside a transaction.
+     */
+    public void evictAfterCommit(Collection<UUID> walletIds) {
+        if (!enabled || walletIds.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(walletIds);
+                }
+            });
+        } else {
+            evict(walletIds);
+        }
+    }
+
+    private void evict(Collection<UUID> walletIds) {
+        try {
+            balanceByWalletId.fastRemove(walletIds.stream().map(UUID::toString).toArray(String[]::new));
+        } catch (RuntimeException e) {
+            log.warn("Balance cache eviction failed for {}: {}", walletIds, e.getMessage());
+        }
+    }
+
+    private WalletBalanceResult toResult(Wallet wallet) {
+        return WalletBalanceResult.builder()
+                .walletId(wallet.getId().toString())
+                .balance(wallet.getBalance())
+                .build();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachedBalance {
+        private BigDecimal balance;
+        private long cachedAt;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.mhpractice.features.wallet.service;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 import com.example.mhpractice.features.user.models.User;
+import com.example.mhpractice.features.wallet.event.TransferRequestEvent;
 import com.example.mhpractice.features.wallet.model.Wallet;
+import com.example.mhpractice.features.wallet.service.result.TransferBatchResult;
+import com.example.mhpractice.features.wallet.service.result.WalletBalanceResult;
 
 public interface WalletService {
 
@@ -12,14 +16,23 @@ public interface WalletService {
 
     public Wallet getWalletByUserId(UUID userId);
 
+    public WalletBalanceResult getBalanceByUserEmail(String email);
+
     public void topUp(UUID walletId, BigDecimal amount, String transactionId);
 
+    public void initiateTransfer(Wallet fromWallet, Wallet toWallet, BigDecimal amount, String transactionId);
+
     public void transferOut(UUID walletId, BigDecimal amount, String transactionId);
 
     public void transferIn(UUID walletId, BigDecimal amount, String transactionId);
 
     public void confirmTransfer(String transactionId);
 
+    // false if the record was already processed (redelivery), nothing applied
+    public boolean transfer(UUID fromWalletId, UUID toWalletId, BigDecimal amount, String transactionId);
+
+    public List<TransferBatchResult> transferBatch(List<TransferRequestEvent> events);
+
     public void cancelTransfer(String transactionId, String reason);
 
 }
@@ -1,15 +1,33 @@
 package com.example.mhpractice.features.wallet.service.impl;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.mhpractice.common.exception.BusinessException;
 import com.example.mhpractice.common.exception.ErrorCode;
+import com.example.mhpractice.features.wallet.model.Transaction.TransferStatus;
+import com.example.mhpractice.features.wallet.model.TransactionHistoryRow;
 import com.example.mhpractice.features.wallet.repository.TransactionRepository;
 import com.example.mhpractice.features.wallet.service.TransactionService;
 import com.example.mhpractice.features.wallet.service.result.TransactionDetailsResult;
+import com.example.mhpractice.features.wallet.service.result.TransactionHistoryPage;
+import com.example.mhpractice.features.wallet.service.result.TransferStatusResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,11 +35,52 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+        // First page starts "after" the largest possible key
+        private static final LocalDateTime FIRST_PAGE_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+        private static final UUID FIRST_PAGE_ID = new UUID(-1L, -1L);
+
+        private static final String CSV_HEADER = "transactionId,fromUserId,toUserId,amount,status,creditStatus,createdAt,updatedAt";
+
         private final TransactionRepository transactionRepository;
+        private final ObjectMapper objectMapper;
+
+        @Value("${app.wallet.history.max-page-size:100}")
+        private int maxPageSize;
+
+        @Override
+        public TransactionHistoryPage getTransactionHistory(String walletId, String cursor, int limit) {
+                int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+
+                LocalDateTime afterCreatedAt = FIRST_PAGE_CREATED_AT;
+                UUID afterId = FIRST_PAGE_ID;
+                if (cursor != null && !cursor.isBlank()) {
+                        String[] key = decodeCursor(cursor);
+                        afterCreatedAt = LocalDateTime.parse(key[0]);
+                        afterId = UUID.fromString(key[1]);
+                }
+
+                // Fetch one extra row to know whether another page exists
+                List<TransactionHistoryRow> rows = transactionRepository.findHistoryPage(
+                                UUID.fromString(walletId), afterCreatedAt, afterId, pageSize + 1);
+
+                boolean hasMore = rows.size() > pageSize;
+                List<TransactionHistoryRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+                String nextCursor = null;
+                if (hasMore) {
+                        TransactionHistoryRow last = page.get(page.size() - 1);
+                        nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+                }
+
+                return TransactionHistoryPage.builder()
+                                .items(page.stream().map(this::toResult).toList())
+                                .nextCursor(nextCursor)
+                                .build();
+        }
 
         @Override
-        public List<TransactionDetailsResult> getTransactionHistory(String walletId) {
-                return transactionRepository.findAllByWalletId(UUID.fromString(walletId)).stream()
+        public TransactionDetailsResult getTransactionDetails(String transactionId) {
+                return transactionRepository.findByTransactionId(transactionId)
                                 .map(transaction -> TransactionDetailsResult.builder()
                                                 .transactionId(transaction.getTransactionId())
                                                 .fromUserId(
@@ -37,27 +96,124 @@ public class TransactionServiceImpl implements TransactionService {
                                                 .createdAt(transaction.getCreatedAt())
                                                 .updatedAt(transaction.getUpdatedAt())
                                                 .build())
-                                .collect(java.util.stream.Collectors.toList());
+                                .orElseThrow(() -> new BusinessException(ErrorCode.TRANSACTION_NOT_FOUND));
         }
 
         @Override
-        public TransactionDetailsResult getTransactionDetails(String transactionId) {
+        public TransferStatusResult getTransferStatus(String transactionId) {
                 return transactionRepository.findByTransactionId(transactionId)
-                                .map(transaction -> TransactionDetailsResult.builder()
+                                .map(transaction -> TransferStatusResult.builder()
                                                 .transactionId(transaction.getTransactionId())
-                                                .fromUserId(
-                                                                transaction.getFromUserMail() != null
-                                                                                ? transaction.getFromUserMail()
-                                                                                : "SYSTEM")
-                                                .toUserId(transaction.getToUserMail() != null
-                                                                ? transaction.getToUserMail()
-                                                                : "SYSTEM")
-                                                .amount(transaction.getAmount())
                                                 .status(transaction.getStatus().name())
-                                                .creditStatus(transaction.getCreditStatus().name())
-                                                .createdAt(transaction.getCreatedAt())
-                                                .updatedAt(transaction.getUpdatedAt())
+                                                .amount(transaction.getAmount())
+                                                .reason(transaction.getCancelReason())
+                                                .completed(transaction.getStatus() == TransferStatus.SUCCESS
+                                                                || transaction.getStatus() == TransferStatus.FAILED
+                                                                || transaction.getStatus() == TransferStatus.CANCELLED)
                                                 .build())
                                 .orElseThrow(() -> new BusinessException(ErrorCode.TRANSACTION_NOT_FOUND));
         }
+
+        @Override
+        public void checkParticipant(String transactionId, String walletId) {
+                if (!transactionRepository.isParticipant(transactionId, UUID.fromString(walletId))) {
+                        throw new BusinessException(ErrorCode.TRANSACTION_NOT_FOUND);
+                }
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public void exportTransactionHistory(String walletId, ExportFormat format, OutputStream out)
+                        throws IOException {
+                // Writer is not closed here: the caller owns (and closes) the stream
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+                if (format == ExportFormat.CSV) {
+                        writer.write(CSV_HEADER);
+                        writer.write('\n');
+                }
+
+                try (Stream<TransactionHistoryRow> rows = transactionRepository.streamHistory(UUID.fromString(walletId))) {
+                        rows.forEach(row -> {
+                                try {
+                                        if (format == ExportFormat.CSV) {
+                                                writeCsvLine(writer, row);
+                                        } else {
+                                                writer.write(objectMapper.writeValueAsString(toResult(row)));
+                                                writer.write('\n');
+                                        }
+                                } catch (IOException e) {
+                                        // Client went away mid-download, abort the cursor
+                                        throw new UncheckedIOException(e);
+                                }
+                        });
+                } catch (UncheckedIOException e) {
+                        throw e.getCause();
+                }
+
+                writer.flush();
+        }
+
+        private TransactionDetailsResult toResult(TransactionHistoryRow row) {
+                return TransactionDetailsResult.builder()
+                                .transactionId(row.getTransactionId())
+                                .fromUserId(row.getFromUserMail() != null ? row.getFromUserMail() : "SYSTEM")
+                                .toUserId(row.getToUserMail() != null ? row.getToUserMail() : "SYSTEM")
+                                .amount(row.getAmount())
+                                .status(row.getStatus())
+                                .creditStatus(row.getCreditStatus())
+                                .createdAt(row.getCreatedAt())
+                                .updatedAt(row.getUpdatedAt())
+                                .build();
+        }
+
+        private void writeCsvLine(Writer writer, TransactionHistoryRow row) throws IOException {
+                TransactionDetailsResult result = toResult(row);
+                writer.write(csv(result.getTransactionId()));
+                writer.write(',');
+                writer.write(csv(result.getFromUserId()));
+                writer.write(',');
+                writer.write(csv(result.getToUserId()));
+                writer.write(',');
+                writer.write(result.getAmount().toPlainString());
+                writer.write(',');
+                writer.write(csv(result.getStatus()));
+                writer.write(',');
+                writer.write(csv(result.getCreditStatus()));
+                writer.write(',');
+                writer.write(String.valueOf(result.getCreatedAt()));
+                writer.write(',');
+                writer.write(String.valueOf(result.getUpdatedAt()));
+                writer.write('\n');
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks
+        private String csv(String value) {
+                if (value == null) {
+                        return "";
+                }
+                if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                                && value.indexOf('\r') < 0) {
+                        return value;
+                }
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        // Cursor = base64url("<createdAt>|<id>") of the last row on the page
+        private String encodeCursor(LocalDateTime createdAt, UUID id) {
+                String raw = createdAt + "|" + id;
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private String[] decodeCursor(String cursor) {
+                try {
+                        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                        String[] key = raw.split("\\|", 2);
+                        LocalDateTime.parse(key[0]);
+                        UUID.fromString(key[1]);
+                        return key;
+                } catch (RuntimeException e) {
+                        throw new BusinessException(ErrorCode.INVALID_CURSOR);
+                }
+        }
 }
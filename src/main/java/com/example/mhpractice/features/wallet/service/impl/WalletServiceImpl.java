@@ -1,26 +1,43 @@
 package com.example.mhpractice.features.wallet.service.impl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.mhpractice.common.exception.BusinessException;
 import com.example.mhpractice.common.exception.ErrorCode;
 import com.example.mhpractice.common.service.AuditService;
+import com.example.mhpractice.common.service.OutboxService;
 import com.example.mhpractice.features.user.models.User;
 import com.example.mhpractice.features.user.repository.UserRepository;
+import com.example.mhpractice.features.wallet.event.TransferRequestEvent;
+import com.example.mhpractice.features.wallet.lock.WalletLockManager;
+import com.example.mhpractice.features.wallet.lock.WalletLockManager.LockHandle;
 import com.example.mhpractice.features.wallet.model.Transaction;
 import com.example.mhpractice.features.wallet.model.Wallet;
+import com.example.mhpractice.features.wallet.model.WalletSnapshot;
 import com.example.mhpractice.features.wallet.model.Transaction.CreditStatus;
 import com.example.mhpractice.features.wallet.model.Transaction.TransferStatus;
 import com.example.mhpractice.features.wallet.repository.TransactionRepository;
 import com.example.mhpractice.features.wallet.repository.WalletRepository;
+import com.example.mhpractice.features.wallet.service.WalletBalanceCache;
 import com.example.mhpractice.features.wallet.service.WalletService;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
+import com.example.mhpractice.features.wallet.service.result.TransferBatchResult;
+import com.example.mhpractice.features.wallet.service.result.WalletBalanceResult;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
@@ -28,11 +45,35 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class WalletServiceImpl implements WalletService {
 
-    private final RedissonClient redissonClient;
+    private final WalletLockManager walletLockManager;
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
     private final TransactionRepository transactionRepository;
     private final AuditService auditService;
+    private final MeterRegistry meterRegistry;
+    private final WalletBalanceCache walletBalanceCache;
+    private final OutboxService outboxService;
+
+    // Transfer requests are keyed by sender wallet, so with one consumer per
+    // partition the transfer path can skip distributed locks (see application.yaml)
+    @Value("${app.wallet.transfer.single-writer:false}")
+    private boolean singleWriter;
+
+    // ATOMIC = set-based UPDATE with checks in the WHERE clause,
+    // OPTIMISTIC = compare-and-set on version
+    @Value("${app.wallet.concurrency.mode:ATOMIC}")
+    private ConcurrencyMode concurrencyMode;
+
+    @Value("${app.wallet.concurrency.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.wallet.concurrency.backoff-ms:10}")
+    private long backoffMs;
+
+    public enum ConcurrencyMode {
+        ATOMIC,
+        OPTIMISTIC
+    }
 
     @Override
     public void createWallet(User user) {
@@ -52,22 +93,69 @@ public class WalletServiceImpl implements WalletService {
                 .orElseThrow(() -> new BusinessException(ErrorCode.WALLET_NOT_FOUND));
     }
 
+    /**
+     * Creates the PENDING record and the transfer request event atomically:
+     * the event is an outbox row of the same DB transaction, keyed by sender
+     * wallet so all transfers of one wallet stay on one partition, in order.
+     */
+    @Override
+    @Transactional
+    public void initiateTransfer(Wallet fromWallet, Wallet toWallet, BigDecimal amount, String transactionId) {
+        Transaction txn = Transaction.builder()
+                .fromWallet(fromWallet)
+                .fromUserMail(fromWallet.getUser().getEmail())
+                .toWallet(toWallet)
+                .toUserMail(toWallet.getUser().getEmail())
+                .amount(amount)
+                .transactionId(transactionId)
+                .status(TransferStatus.PENDING)
+                .creditStatus(CreditStatus.PENDING)
+                .build();
+        transactionRepository.save(txn);
+
+        User fromUser = fromWallet.getUser();
+        User toUser = toWallet.getUser();
+        outboxService.publish("transfer.events.request", fromWallet.getId().toString(),
+                TransferRequestEvent.builder()
+                        .fromWalletId(fromWallet.getId())
+                        .toWalletId(toWallet.getId())
+                        .amount(amount)
+                        .transactionId(transactionId)
+                        .fromUserId(fromUser.getId())
+                        .fromUserMail(fromUser.getEmail())
+                        .fromUserName(fromUser.getName())
+                        .toUserId(toUser.getId())
+                        .toUserMail(toUser.getEmail())
+                        .toUserName(toUser.getName())
+                        .build());
+    }
+
+    @Override
+    public WalletBalanceResult getBalanceByUserEmail(String email) {
+        return walletBalanceCache.get(email, () -> walletRepository.findByUserEmail(email)
+                .orElseThrow(() -> new BusinessException(ErrorCode.WALLET_NOT_FOUND)));
+    }
+
     @Override
     @Transactional
     public void topUp(UUID walletId, BigDecimal amount, String transactionId) {
-        RLock lock = redissonClient.getLock("wallet:" + walletId);
+        LockHandle lock = walletLockManager.lockWallet(walletId);
         try {
-            lock.lock(10, TimeUnit.SECONDS);
-
             if (transactionRepository.existsByTransactionId(transactionId)) {
                 return;
             }
 
-            Wallet wallet = walletRepository.findByIdWithLock(walletId)
-                    .orElseThrow(() -> new BusinessException(ErrorCode.WALLET_NOT_FOUND));
-
-            wallet.addBalance(amount);
-            walletRepository.save(wallet);
+            Wallet wallet;
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                updateOptimistically("top_up", walletId,
+                        snapshot -> snapshot.withBalance(snapshot.getBalance().add(amount)));
+                wallet = walletRepository.getReferenceById(walletId);
+            } else {
+                if (walletRepository.credit(walletId, amount) == 0) {
+                    throw new BusinessException(ErrorCode.WALLET_NOT_FOUND);
+                }
+                wallet = walletRepository.getReferenceById(walletId);
+            }
 
             Transaction record = Transaction.builder()
                     .transactionId(transactionId)
@@ -82,10 +170,10 @@ public class WalletServiceImpl implements WalletService {
 
             auditService.logTopUp(record);
 
+            walletBalanceCache.evictAfterCommit(walletId);
+
         } finally {
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
+            lock.unlock();
         }
     }
 
@@ -96,12 +184,10 @@ public class WalletServiceImpl implements WalletService {
     @Transactional
     public void transferOut(UUID walletId, BigDecimal amount, String transactionId) {
 
-        // 1. Distributed lock on sender wallet
-        RLock lock = redissonClient.getLock("wallet:" + walletId);
+        // 1. Lock sender wallet
+        LockHandle lock = walletLockManager.lockWallet(walletId);
 
         try {
-            lock.lock(10, TimeUnit.SECONDS);
-
             // 2. Check idempotency (prevent duplicate debit)
             if (transactionRepository.existsByTransactionId(transactionId) && transactionRepository
                     .findByTransactionId(transactionId).get().getStatus() != TransferStatus.PENDING) {
@@ -110,19 +196,24 @@ public class WalletServiceImpl implements WalletService {
                 return;
             }
 
-            // 3. Pessimistic lock + load wallet
-            Wallet wallet = walletRepository.findByIdWithLock(walletId)
-                    .orElseThrow(() -> new BusinessException(ErrorCode.WALLET_NOT_FOUND));
-
-            // 4. Validation
-            if (!wallet.hasSufficientBalance(amount)) {
-                throw new BusinessException(ErrorCode.INSUFFICIENT_BALANCE);
+            Wallet wallet;
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                // 3-5. Validate + freeze against the latest snapshot, CAS on version
+                updateOptimistically("transfer_out", walletId, snapshot -> {
+                    if (!snapshot.hasSufficientBalance(amount)) {
+                        throw new BusinessException(ErrorCode.INSUFFICIENT_BALANCE);
+                    }
+                    return snapshot.withFrozenBalance(snapshot.getFrozenBalance().add(amount));
+                });
+                wallet = walletRepository.getReferenceById(walletId);
+            } else {
+                // 3-5. Freeze the amount (NOT deduct yet!), balance check is in the WHERE clause
+                if (walletRepository.freeze(walletId, amount) == 0) {
+                    throw insufficientBalanceOrNotFound(walletId);
+                }
+                wallet = walletRepository.getReferenceById(walletId);
             }
 
-            // 5. Freeze the amount (NOT deduct yet!)
-            wallet.setFrozenBalance(wallet.getFrozenBalance().add(amount));
-            walletRepository.save(wallet);
-
             // 6. Create or Update transaction record
             Transaction record;
             var existingTxn = transactionRepository.findByTransactionId(transactionId);
@@ -136,7 +227,9 @@ public class WalletServiceImpl implements WalletService {
                 }
                 record.setStatus(TransferStatus.FROZEN);
                 record.setCreditStatus(CreditStatus.PENDING);
-                record.setFromUserMail(wallet.getUser().getEmail()); // Ensure mail is set
+                if (record.getFromUserMail() == null) {
+                    record.setFromUserMail(wallet.getUser().getEmail()); // Ensure mail is set
+                }
             } else {
                 // Fallback: If for some reason init didn't happen (legacy flow?), create it
                 record = Transaction.builder()
@@ -154,9 +247,7 @@ public class WalletServiceImpl implements WalletService {
             auditService.logBalanceFrozen(record);
 
         } finally {
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
+            lock.unlock();
         }
     }
 
@@ -168,11 +259,9 @@ public class WalletServiceImpl implements WalletService {
     public void transferIn(UUID walletId, BigDecimal amount, String transactionId) {
 
         // 1. Lock receiver wallet
-        RLock lock = redissonClient.getLock("wallet:" + walletId);
+        LockHandle lock = walletLockManager.lockWallet(walletId);
 
         try {
-            lock.lock(10, TimeUnit.SECONDS);
-
             Transaction record = transactionRepository.findByTransactionId(transactionId)
                     .orElseThrow(() -> new BusinessException(ErrorCode.TRANSACTION_NOT_FOUND));
 
@@ -181,26 +270,32 @@ public class WalletServiceImpl implements WalletService {
                 return; // Already credited
             }
 
-            // 3. Load wallet with lock
-            Wallet wallet = walletRepository.findByIdWithLock(walletId)
-                    .orElseThrow(() -> new BusinessException(ErrorCode.WALLET_NOT_FOUND));
-
-            // 4. Credit the amount
-            wallet.addUnreleasedBalance(amount);
-            walletRepository.save(wallet);
+            Wallet wallet;
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                // 3-4. Credit the amount, CAS on version
+                updateOptimistically("transfer_in", walletId,
+                        snapshot -> snapshot.withUnreleasedBalance(snapshot.getUnreleasedBalance().add(amount)));
+                wallet = walletRepository.getReferenceById(walletId);
+            } else {
+                // 3-4. Credit the amount
+                if (walletRepository.creditUnreleased(walletId, amount) == 0) {
+                    throw new BusinessException(ErrorCode.WALLET_NOT_FOUND);
+                }
+                wallet = walletRepository.getReferenceById(walletId);
+            }
 
             // 5. Update transaction status
             record.setToWallet(wallet);
-            record.setToUserMail(wallet.getUser().getEmail());
+            if (record.getToUserMail() == null) {
+                record.setToUserMail(wallet.getUser().getEmail());
+            }
             record.setCreditStatus(CreditStatus.SUCCESS);
             transactionRepository.save(record);
 
             auditService.logBalanceCredited(record);
 
         } finally {
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
+            lock.unlock();
         }
     }
 
@@ -211,11 +306,9 @@ public class WalletServiceImpl implements WalletService {
     @Transactional
     public void confirmTransfer(String transactionId) {
 
-        RLock lock = redissonClient.getLock("transaction:" + transactionId);
+        LockHandle lock = walletLockManager.lockTransaction(transactionId);
 
         try {
-            lock.lock(10, TimeUnit.SECONDS);
-
             Transaction record = transactionRepository.findByTransactionId(transactionId)
                     .orElseThrow();
 
@@ -225,27 +318,175 @@ public class WalletServiceImpl implements WalletService {
                 throw new IllegalStateException("Transfer not ready to confirm");
             }
 
-            // 1. Deduct sender's frozen balance and real balance
-            Wallet fromWallet = walletRepository.findByIdWithLock(record.getFromWallet().getId())
-                    .orElseThrow();
-            fromWallet.clearFrozenBalance(record.getAmount());
+            BigDecimal amount = record.getAmount();
 
-            walletRepository.save(fromWallet);
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                // 1. Deduct sender's frozen balance and real balance
+                updateOptimistically("confirm_transfer", record.getFromWallet().getId(),
+                        snapshot -> snapshot
+                                .withFrozenBalance(snapshot.getFrozenBalance().subtract(amount))
+                                .withBalance(snapshot.getBalance().subtract(amount)));
 
-            // 2. Release from unreleased balance
-            Wallet toWallet = walletRepository.findByIdWithLock(record.getToWallet().getId())
-                    .orElseThrow();
-            toWallet.releaseUnreleasedBalance(record.getAmount());
-            walletRepository.save(toWallet);
+                // 2. Release from unreleased balance
+                updateOptimistically("confirm_transfer", record.getToWallet().getId(),
+                        snapshot -> snapshot
+                                .withUnreleasedBalance(snapshot.getUnreleasedBalance().subtract(amount))
+                                .withBalance(snapshot.getBalance().add(amount)));
+            } else {
+                // 1. Deduct sender's frozen balance and real balance
+                // 2. Release from unreleased balance
+                if (walletRepository.clearFrozen(record.getFromWallet().getId(), amount) == 0
+                        || walletRepository.releaseUnreleased(record.getToWallet().getId(), amount) == 0) {
+                    throw new BusinessException(ErrorCode.TRANSACTION_INTERNAL_ERROR,
+                            "Wallet balances do not match transaction " + transactionId);
+                }
+            }
 
             // 3. Mark transaction complete
             record.setStatus(TransferStatus.SUCCESS);
             transactionRepository.save(record);
 
+            walletBalanceCache.evictAfterCommit(record.getFromWallet().getId(), record.getToWallet().getId());
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ========================================
+    // FAST PATH: Freeze + Credit + Release in one go
+    // ========================================
+    @Override
+    @Transactional
+    public boolean transfer(UUID fromWalletId, UUID toWalletId, BigDecimal amount, String transactionId) {
+
+        // 1. Lock both wallets once (lock manager acquires in a deadlock-free order)
+        LockHandle lock = singleWriter ? LockHandle.NONE
+                : walletLockManager.lockWallets(List.of(fromWalletId, toWalletId));
+
+        try {
+            // 2. Load the transaction record once + idempotency check
+            Transaction record = transactionRepository.findByTransactionId(transactionId)
+                    .orElseThrow(() -> new BusinessException(ErrorCode.TRANSACTION_NOT_FOUND));
+
+            if (record.getStatus() != TransferStatus.PENDING) {
+                return false; // Already processed
+            }
+
+            // 3. Freeze -> credit -> release collapse into one set-based UPDATE per wallet.
+            // Balance check is in the debit WHERE clause. Applied in wallet id order so
+            // opposite transfers can't deadlock on row locks (matters in single-writer mode).
+            if (fromWalletId.compareTo(toWalletId) <= 0) {
+                debitOrThrow(fromWalletId, amount);
+                creditOrThrow(toWalletId, amount);
+            } else {
+                creditOrThrow(toWalletId, amount);
+                debitOrThrow(fromWalletId, amount);
+            }
+
+            // Wallet references only, no hydration needed
+            record.setFromWallet(walletRepository.getReferenceById(fromWalletId));
+            record.setToWallet(walletRepository.getReferenceById(toWalletId));
+
+            // Keep the same audit trail as the step-by-step saga
+            record.setStatus(TransferStatus.FROZEN);
+            auditService.logBalanceFrozen(record);
+
+            record.setCreditStatus(CreditStatus.SUCCESS);
+            auditService.logBalanceCredited(record);
+
+            // 6. Mark transaction complete (all changes flushed together on commit)
+            record.setStatus(TransferStatus.SUCCESS);
+
+            walletBalanceCache.evictAfterCommit(fromWalletId, toWalletId);
+            return true;
+
         } finally {
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
+            lock.unlock();
+        }
+    }
+
+    // ========================================
+    // BATCH PATH: Many transfers, each wallet touched once
+    // ========================================
+    @Override
+    @Transactional
+    public List<TransferBatchResult> transferBatch(List<TransferRequestEvent> events) {
+
+        // 1. Collect every wallet in the batch, so hot wallets are locked once
+        Set<UUID> walletIds = new TreeSet<>();
+        for (TransferRequestEvent event : events) {
+            walletIds.add(event.getFromWalletId());
+            walletIds.add(event.getToWalletId());
+        }
+
+        LockHandle lock = singleWriter ? LockHandle.NONE : walletLockManager.lockWallets(walletIds);
+
+        try {
+            // 2. One row-lock query for all wallets, one IN query for all records
+            Map<UUID, Wallet> wallets = loadTransferWallets(walletIds);
+
+            Map<String, Transaction> records = transactionRepository
+                    .findAllByTransactionIdIn(events.stream().map(TransferRequestEvent::getTransactionId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Transaction::getTransactionId, Function.identity()));
+
+            // 3. Apply in poll order. Deltas accumulate on the managed entities, so each
+            // wallet is written once at flush (JDBC batched, see hibernate.jdbc.batch_size)
+            List<TransferBatchResult> results = new ArrayList<>();
+            for (TransferRequestEvent event : events) {
+                String transactionId = event.getTransactionId();
+                Transaction record = records.get(transactionId);
+
+                if (record == null) {
+                    results.add(TransferBatchResult.failed(transactionId, ErrorCode.TRANSACTION_NOT_FOUND.getMessage()));
+                    continue;
+                }
+
+                if (record.getStatus() != TransferStatus.PENDING) {
+                    continue; // Already processed (redelivery)
+                }
+
+                Wallet fromWallet = wallets.get(event.getFromWalletId());
+                Wallet toWallet = wallets.get(event.getToWalletId());
+
+                if (fromWallet == null || toWallet == null) {
+                    record.cancel(ErrorCode.WALLET_NOT_FOUND.getMessage());
+                    results.add(TransferBatchResult.failed(transactionId, record.getCancelReason()));
+                    continue;
+                }
+
+                // Balance already reflects earlier transfers in this batch
+                if (!fromWallet.hasSufficientBalance(event.getAmount())) {
+                    record.cancel(ErrorCode.INSUFFICIENT_BALANCE.getMessage());
+                    results.add(TransferBatchResult.failed(transactionId, record.getCancelReason()));
+                    continue;
+                }
+
+                fromWallet.deductBalance(event.getAmount());
+                toWallet.addBalance(event.getAmount());
+
+                record.setFromWallet(fromWallet);
+                record.setToWallet(toWallet);
+                record.setFromUserMail(fromWallet.getUser().getEmail());
+                record.setToUserMail(toWallet.getUser().getEmail());
+
+                record.setStatus(TransferStatus.FROZEN);
+                auditService.logBalanceFrozen(record);
+
+                record.setCreditStatus(CreditStatus.SUCCESS);
+                auditService.logBalanceCredited(record);
+
+                record.setStatus(TransferStatus.SUCCESS);
+                results.add(TransferBatchResult.success(transactionId));
             }
+
+            walletBalanceCache.evictAfterCommit(walletIds);
+
+            return results;
+
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -256,11 +497,9 @@ public class WalletServiceImpl implements WalletService {
     @Transactional
     public void cancelTransfer(String transactionId, String reason) {
 
-        RLock lock = redissonClient.getLock("transaction:" + transactionId);
+        LockHandle lock = walletLockManager.lockTransaction(transactionId);
 
         try {
-            lock.lock(10, TimeUnit.SECONDS);
-
             var transactionOpt = transactionRepository.findByTransactionId(transactionId);
             if (transactionOpt.isEmpty()) {
                 // If transaction record doesn't exist, it means failure happened before
@@ -270,23 +509,17 @@ public class WalletServiceImpl implements WalletService {
             }
             Transaction record = transactionOpt.get();
 
-            // Unfreeze sender's balance
-            Wallet fromWallet = walletRepository.findByIdWithLock(record.getFromWallet().getId())
-                    .orElseThrow();
-            fromWallet.setFrozenBalance(
-                    fromWallet.getFrozenBalance().subtract(record.getAmount()));
-            walletRepository.save(fromWallet);
+            // Only reverse the steps that actually happened.
+            // PENDING means nothing was applied (e.g. fast path failed validation).
+            if (record.getStatus() == TransferStatus.FROZEN) {
 
-            // Release from unreleased balance
-            Wallet toWallet = walletRepository.findByIdWithLock(record.getToWallet().getId())
-                    .orElseThrow();
-            toWallet.setUnreleasedBalance(toWallet.getUnreleasedBalance().subtract(record.getAmount()));
-            walletRepository.save(toWallet);
+                // Unfreeze sender's balance
+                unfreezeOrThrow(record);
 
-            // If credit already happened, reverse it
-            if (record.getCreditStatus() == CreditStatus.SUCCESS) {
-                toWallet.setBalance(toWallet.getBalance().subtract(record.getAmount()));
-                walletRepository.save(toWallet);
+                // If credit already happened, take it back from unreleased balance
+                if (record.getCreditStatus() == CreditStatus.SUCCESS) {
+                    revokeUnreleasedOrThrow(record);
+                }
             }
 
             // Mark as cancelled
@@ -294,10 +527,113 @@ public class WalletServiceImpl implements WalletService {
             record.setCancelReason(reason);
             transactionRepository.save(record);
 
+            if (record.getFromWallet() != null && record.getToWallet() != null) {
+                walletBalanceCache.evictAfterCommit(record.getFromWallet().getId(), record.getToWallet().getId());
+            }
+
         } finally {
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
+            lock.unlock();
+        }
+    }
+
+    // ================
+    // Private Methods
+    // ================
+
+    private void debitOrThrow(UUID walletId, BigDecimal amount) {
+        if (walletRepository.debit(walletId, amount) == 0) {
+            throw insufficientBalanceOrNotFound(walletId);
+        }
+    }
+
+    private void creditOrThrow(UUID walletId, BigDecimal amount) {
+        if (walletRepository.credit(walletId, amount) == 0) {
+            throw new BusinessException(ErrorCode.WALLET_NOT_FOUND);
+        }
+    }
+
+    // 0 rows means the frozen amount isn't there any more: don't report a
+    // cancellation that reversed nothing, roll back and leave it FROZEN
+    private void unfreezeOrThrow(Transaction record) {
+        if (walletRepository.unfreeze(record.getFromWallet().getId(), record.getAmount()) == 0) {
+            throw new BusinessException(ErrorCode.TRANSACTION_INTERNAL_ERROR,
+                    "No frozen balance to release for transaction " + record.getTransactionId());
+        }
+    }
+
+    private void revokeUnreleasedOrThrow(Transaction record) {
+        if (walletRepository.revokeUnreleased(record.getToWallet().getId(), record.getAmount()) == 0) {
+            throw new BusinessException(ErrorCode.TRANSACTION_INTERNAL_ERROR,
+                    "No unreleased balance to revoke for transaction " + record.getTransactionId());
+        }
+    }
+
+    // 0 affected rows is ambiguous, only the failure path pays for the extra lookup
+    private BusinessException insufficientBalanceOrNotFound(UUID walletId) {
+        return new BusinessException(walletRepository.existsById(walletId)
+                ? ErrorCode.INSUFFICIENT_BALANCE
+                : ErrorCode.WALLET_NOT_FOUND);
+    }
+
+    /**
+     * Optimistic update: read snapshot -> apply mutation -> UPDATE ... WHERE
+     * version = ?. On conflict (0 rows) re-read and retry, with jittered
+     * exponential backoff, up to max-attempts.
+     *
+     * Business exceptions thrown by the mutation (e.g. insufficient balance)
+     * are not retried.
+     */
+    private void updateOptimistically(String operation, UUID walletId, UnaryOperator<WalletSnapshot> mutation) {
+        for (int attempt = 1;; attempt++) {
+            WalletSnapshot current = walletRepository.findSnapshotById(walletId)
+                    .orElseThrow(() -> new BusinessException(ErrorCode.WALLET_NOT_FOUND));
+
+            WalletSnapshot updated = mutation.apply(current);
+
+            int rows = walletRepository.updateBalancesIfVersion(walletId, updated.getBalance(),
+                    updated.getFrozenBalance(), updated.getUnreleasedBalance(), current.getVersion());
+            if (rows == 1) {
+                return;
+            }
+
+            meterRegistry.counter("wallet.optimistic.conflict", "operation", operation).increment();
+
+            if (attempt >= maxAttempts) {
+                meterRegistry.counter("wallet.optimistic.exhausted", "operation", operation).increment();
+                throw new BusinessException(ErrorCode.WALLET_CONCURRENT_UPDATE);
             }
+
+            meterRegistry.counter("wallet.optimistic.retry", "operation", operation).increment();
+            backoff(attempt);
         }
     }
+
+    private void backoff(int attempt) {
+        // Full jitter: random wait in [0, backoffMs * 2^(attempt-1)]
+        long maxWait = backoffMs << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxWait + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.WALLET_CONCURRENT_UPDATE);
+        }
+    }
+
+    /**
+     * Load wallets for the batch path (entities, so deltas of one batch
+     * accumulate and each wallet is written once).
+     *
+     * Single-writer mode: no FOR UPDATE. The partition serialises transfers of
+     * the same sender, and the @Version column rejects any concurrent write
+     * (e.g. the wallet credited from another partition, or a top up). The
+     * optimistic lock failure is thrown on commit and the record is redelivered.
+     */
+    private Map<UUID, Wallet> loadTransferWallets(Collection<UUID> walletIds) {
+        List<Wallet> wallets = singleWriter
+                ? walletRepository.findAllById(walletIds)
+                : walletRepository.findAllByIdWithLock(walletIds);
+
+        return wallets.stream()
+                .collect(Collectors.toMap(Wallet::getId, Function.identity()));
+    }
 }
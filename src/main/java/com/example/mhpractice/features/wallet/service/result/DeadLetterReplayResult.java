@@ -0,0 +1,18 @@
+package com.example.mhpractice.features.wallet.service.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeadLetterReplayResult {
+    private String topic;
+    private int replayed;  // re-driven through the orchestrator
+    private int rejected;  // orchestrator refused it again (business rule)
+    private int skipped;   // not a TransferRequestEvent (e.g. undeserializable)
+    private boolean completed; // false = stopped early, rest is replayed next run
+}
@@ -0,0 +1,18 @@
+package com.example.mhpractice.features.wallet.service.result;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionHistoryPage {
+    private List<TransactionDetailsResult> items;
+    // Opaque cursor for the next page, null when there are no more rows
+    private String nextCursor;
+}
@@ -0,0 +1,31 @@
+package com.example.mhpractice.features.wallet.service.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferBatchResult {
+    private String transactionId;
+    private boolean success;
+    private String reason;
+
+    public static TransferBatchResult success(String transactionId) {
+        return TransferBatchResult.builder()
+                .transactionId(transactionId)
+                .success(true)
+                .build();
+    }
+
+    public static TransferBatchResult failed(String transactionId, String reason) {
+        return TransferBatchResult.builder()
+                .transactionId(transactionId)
+                .success(false)
+                .reason(reason)
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.mhpractice.features.wallet.service.result;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferStatusResult {
+    private String transactionId;
+    private String status; // Transaction.TransferStatus name
+    private BigDecimal amount;
+    private String reason;
+    private boolean completed; // false = still in flight when the wait timed out
+}
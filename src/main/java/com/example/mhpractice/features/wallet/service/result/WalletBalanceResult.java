@@ -0,0 +1,17 @@
+package com.example.mhpractice.features.wallet.service.result;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WalletBalanceResult {
+    private String walletId;
+    private BigDecimal balance;
+}
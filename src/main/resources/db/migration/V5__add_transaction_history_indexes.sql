@@ -0,0 +1,21 @@
+-- V5: Composite indexes for keyset-paginated transaction history
+--
+-- GET /api/transactions pages on (created_at, id) per wallet:
+--   WHERE from_wallet_id = ? AND (created_at, id) < (?, ?)
+--   ORDER BY created_at DESC, id DESC LIMIT n
+-- (and the same for to_wallet_id). A backward scan of these indexes
+-- returns exactly n rows without sorting, however old the cursor is.
+--
+-- The transactions table is created by Hibernate (ddl-auto), which may run
+-- after Flyway on a fresh database; the entity declares the same indexes,
+-- so here we only create them when the table already exists.
+
+DO $$
+BEGIN
+    IF to_regclass('public.transactions') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_transactions_from_wallet_created
+            ON transactions(from_wallet_id, created_at, id);
+        CREATE INDEX IF NOT EXISTS idx_transactions_to_wallet_created
+            ON transactions(to_wallet_id, created_at, id);
+    END IF;
+END $$;
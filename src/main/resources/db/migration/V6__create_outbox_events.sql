@@ -0,0 +1,25 @@
+-- V6: Transactional outbox for Kafka events
+--
+-- Rows are inserted in the same DB transaction as the business change
+-- (OutboxService) and published in id order by OutboxRelay, which then
+-- stamps published_at. Published rows are purged daily by CleanupService.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+
+    -- Kafka destination
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+
+    -- Payload as JSON + class name for the JsonSerializer type header
+    payload_type VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+
+    created_at TIMESTAMP DEFAULT NOW(),
+
+    -- NULL until relayed to Kafka
+    published_at TIMESTAMP
+);
+
+-- Relay poll: oldest unpublished rows
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unpublished ON outbox_events(published_at, id);
@@ -0,0 +1,86 @@
+-- V7: Range-partition audit_logs by month on "timestamp"
+--
+-- Each month lives in its own partition (audit_logs_yYYYYmMM), so inserts
+-- only touch the current, small partition and its indexes, and old months
+-- can be detached + archived (AuditPartitionManager) instead of deleted row
+-- by row. Partitions for upcoming months are pre-created daily by
+-- CleanupService; this migration creates the ones needed for existing data.
+--
+-- Postgres requires the partition key in the primary key: (id, timestamp).
+
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE;
+    m DATE;
+BEGIN
+    -- Already partitioned (e.g. re-run against a restored schema)
+    IF EXISTS (SELECT 1 FROM pg_class WHERE relname = 'audit_logs' AND relkind = 'p') THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+
+    -- Index names are schema-wide; free them for the new table
+    DROP INDEX IF EXISTS idx_audit_logs_timestamp;
+    DROP INDEX IF EXISTS idx_audit_logs_from_user_id;
+    DROP INDEX IF EXISTS idx_audit_logs_to_user_id;
+    DROP INDEX IF EXISTS idx_audit_logs_transaction_id;
+    DROP INDEX IF EXISTS idx_audit_logs_high_severity;
+    DROP INDEX IF EXISTS idx_audit_logs_action;
+
+    CREATE TABLE audit_logs (
+        id UUID NOT NULL DEFAULT gen_random_uuid(),
+        timestamp TIMESTAMP NOT NULL DEFAULT NOW(),
+        action VARCHAR(50) NOT NULL,
+        transaction_id VARCHAR(255),
+        from_user_id UUID,
+        to_user_id UUID,
+        from_wallet_id UUID,
+        to_wallet_id UUID,
+        amount DECIMAL(18, 2),
+        status VARCHAR(50),
+        severity VARCHAR(20) DEFAULT 'LOW',
+        ip_address VARCHAR(50),
+        user_agent VARCHAR(500),
+        metadata TEXT,
+        description VARCHAR(1000),
+        created_at TIMESTAMP DEFAULT NOW(),
+        PRIMARY KEY (id, timestamp)
+    ) PARTITION BY RANGE (timestamp);
+
+    -- One partition per month from the oldest row up to 3 months ahead
+    SELECT date_trunc('month', COALESCE(MIN(timestamp), NOW()))::DATE INTO first_month FROM audit_logs_legacy;
+    last_month := (date_trunc('month', NOW()) + INTERVAL '3 months')::DATE;
+
+    m := first_month;
+    WHILE m <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+            'audit_logs_y' || to_char(m, 'YYYY') || 'm' || to_char(m, 'MM'),
+            m, (m + INTERVAL '1 month')::DATE);
+        m := (m + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    INSERT INTO audit_logs SELECT
+        id, timestamp, action, transaction_id, from_user_id, to_user_id, from_wallet_id, to_wallet_id,
+        amount, status, severity, ip_address, user_agent, metadata, description, created_at
+    FROM audit_logs_legacy;
+
+    DROP TABLE audit_logs_legacy;
+END $$;
+
+-- ========================================
+-- Indexes (created on every partition)
+-- ========================================
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_timestamp ON audit_logs(timestamp DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_from_user_id ON audit_logs(from_user_id, timestamp DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_to_user_id ON audit_logs(to_user_id, timestamp DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_transaction_id ON audit_logs(transaction_id);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_high_severity
+    ON audit_logs(timestamp DESC)
+    WHERE severity IN ('HIGH', 'CRITICAL');
+CREATE INDEX IF NOT EXISTS idx_audit_logs_action ON audit_logs(action, timestamp DESC);
+
+COMMENT ON TABLE audit_logs IS 'Append-only compliance audit log, partitioned by month; old months archived to gzip CSV';
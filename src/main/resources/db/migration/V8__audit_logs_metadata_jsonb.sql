@@ -0,0 +1,14 @@
+-- V8: Store audit_logs.metadata as jsonb
+--
+-- New rows carry a compact AuditMetadata document (only fields that are not
+-- already columns, short keys, no nulls). jsonb is stored parsed and
+-- TOAST-compressed, and can be queried (metadata->>'cr') in investigations.
+-- Existing rows hold full Transaction JSON; AuditMetadataReader reads both.
+--
+-- Altering the partitioned parent rewrites every partition.
+
+ALTER TABLE audit_logs
+    ALTER COLUMN metadata TYPE jsonb
+    USING CASE WHEN metadata IS NULL OR metadata = '' THEN NULL ELSE metadata::jsonb END;
+
+COMMENT ON COLUMN audit_logs.metadata IS 'Compact AuditMetadata jsonb ("v" = schema version); legacy rows hold full transaction JSON';
@@ -0,0 +1,191 @@
+package com.example.mhpractice.common.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import com.example.mhpractice.features.wallet.event.TransferEventSchemas;
+import com.example.mhpractice.features.wallet.event.TransferFailedEvent;
+import com.example.mhpractice.features.wallet.event.TransferRequestEvent;
+import com.example.mhpractice.features.wallet.event.TransferRollbackEvent;
+import com.example.mhpractice.features.wallet.event.TransferSuccessEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Enforces the EventSchema evolution rules against the recorded schemas in
+ * src/test/resources/kafka-schemas (our stand-in for a schema registry).
+ */
+public class EventSchemaCompatibilityTest {
+
+    private final BinaryEventCodec codec = new BinaryEventCodec(TransferEventSchemas.ALL);
+
+    @Test
+    void schemas_only_append_to_recorded_fields() throws IOException {
+        for (EventSchema<?> schema : TransferEventSchemas.ALL) {
+            List<String> recorded = readRecordedSchema(schema.getName());
+            List<? extends EventSchema.Field<?>> fields = schema.getFields();
+
+            for (int i = 0; i < recorded.size(); i++) {
+                assertTrue(i < fields.size(), schema.getName() + ": recorded field removed: " + recorded.get(i));
+                String current = fields.get(i).name() + " " + fields.get(i).type();
+                assertEquals(recorded.get(i), current,
+                        schema.getName() + ": field " + i + " renamed, retyped or reordered");
+            }
+            assertEquals(recorded.size(), fields.size(),
+                    schema.getName() + ": new fields must be recorded in kafka-schemas/" + schema.getName() + ".schema");
+        }
+    }
+
+    @Test
+    void round_trips_every_event() {
+        assertEquals(successEvent(), codec.decode(codec.encode(successEvent())));
+
+        TransferRequestEvent request = TransferRequestEvent.builder()
+                .fromWalletId(UUID.randomUUID())
+                .toWalletId(UUID.randomUUID())
+                .amount(new BigDecimal("10.50"))
+                .transactionId(UUID.randomUUID().toString())
+                .fromUserId(UUID.randomUUID())
+                .fromUserMail("alice@example.com")
+                .fromUserName("Alice")
+                .toUserId(UUID.randomUUID())
+                .toUserMail("bob@example.com")
+                .toUserName("Bob")
+                .build();
+        assertEquals(request, codec.decode(codec.encode(request)));
+
+        TransferFailedEvent failed = TransferFailedEvent.of(request, "Insufficient balance");
+        assertEquals(failed, codec.decode(codec.encode(failed)));
+
+        TransferRollbackEvent rollback = TransferRollbackEvent.of(request, "Internal error");
+        assertEquals(rollback, codec.decode(codec.encode(rollback)));
+    }
+
+    @Test
+    void keeps_nulls() {
+        TransferFailedEvent failed = TransferFailedEvent.of("txn-1", null);
+
+        TransferFailedEvent decoded = (TransferFailedEvent) codec.decode(codec.encode(failed));
+
+        assertEquals("txn-1", decoded.getTransactionId());
+        assertNull(decoded.getReason());
+        assertNull(decoded.getAmount());
+    }
+
+    @Test
+    void new_reader_defaults_fields_missing_from_old_writer() {
+        // Old writer: only the first 4 fields of today's schema
+        EventSchema<TransferSuccessEvent> oldSchema = prefixOf(TransferEventSchemas.TRANSFER_SUCCESS, 4);
+        byte[] oldPayload = new BinaryEventCodec(List.of(oldSchema)).encode(successEvent());
+
+        TransferSuccessEvent decoded = (TransferSuccessEvent) codec.decode(oldPayload);
+
+        assertEquals(successEvent().getTransactionId(), decoded.getTransactionId());
+        assertEquals(successEvent().getToWalletId(), decoded.getToWalletId());
+        assertNull(decoded.getAmount());
+        assertNull(decoded.getEventId());
+    }
+
+    @Test
+    void old_reader_skips_fields_added_by_new_writer() {
+        // New writer: today's schema + one appended field
+        EventSchema.Builder<TransferSuccessEvent> newer = EventSchema.builder("TransferSuccessEvent",
+                TransferSuccessEvent.class, TransferSuccessEvent::new);
+        for (EventSchema.Field<TransferSuccessEvent> field : TransferEventSchemas.TRANSFER_SUCCESS.getFields()) {
+            newer.field(field.name(), field.type(), field.getter(), field.setter());
+        }
+        newer.field("channel", FieldType.STRING, event -> "mobile", (event, value) -> {
+        });
+        byte[] newPayload = new BinaryEventCodec(List.of(newer.build())).encode(successEvent());
+
+        assertEquals(successEvent(), codec.decode(newPayload));
+    }
+
+    @Test
+    void old_reader_skips_appended_field_of_unknown_type() {
+        // New writer: today's payload + one field whose type tag this reader has never seen
+        byte[] payload = codec.encode(successEvent());
+        int countOffset = 3 + "TransferSuccessEvent".length();
+        ByteBuffer newPayload = ByteBuffer.allocate(payload.length + 8).put(payload).put((byte) 99).putInt(3)
+                .put(new byte[] { 1, 2, 3 });
+        newPayload.put(countOffset, (byte) (payload[countOffset] + 1));
+
+        assertEquals(successEvent(), codec.decode(newPayload.array()));
+    }
+
+    @Test
+    void rejects_length_beyond_payload() {
+        byte[] payload = codec.encode(TransferFailedEvent.of("txn-1", null));
+        // First field's value length, right after its type tag
+        int lengthOffset = 3 + "TransferFailedEvent".length() + 2;
+        ByteBuffer.wrap(payload).putInt(lengthOffset, Integer.MAX_VALUE);
+
+        assertThrows(SerializationException.class, () -> codec.decode(payload));
+    }
+
+    @Test
+    void binary_is_detected_and_smaller_than_json() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        byte[] json = objectMapper.writeValueAsBytes(successEvent());
+        byte[] binary = codec.encode(successEvent());
+
+        assertTrue(BinaryEventCodec.isBinary(binary));
+        assertFalse(BinaryEventCodec.isBinary(json));
+        assertTrue(binary.length < json.length, "binary " + binary.length + " >= json " + json.length);
+    }
+
+    private static TransferSuccessEvent successEvent() {
+        return TransferSuccessEvent.builder()
+                .transactionId("4f1c2a6e-1b7d-4c1e-9a34-0d6b1c2e3f40")
+                .fromWalletId(UUID.fromString("11111111-1111-1111-1111-111111111111"))
+                .toWalletId(UUID.fromString("22222222-2222-2222-2222-222222222222"))
+                .fromUserId(UUID.fromString("33333333-3333-3333-3333-333333333333"))
+                .fromUserMail("alice@example.com")
+                .fromUserName("Alice")
+                .toUserId(UUID.fromString("44444444-4444-4444-4444-444444444444"))
+                .toUserMail("bob@example.com")
+                .toUserName("Bob")
+                .amount(new BigDecimal("1234.56"))
+                .timestamp(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 600_000_000))
+                .eventId("9d2e5b1a-7c3f-4e2d-8b1a-5f6e7d8c9b0a")
+                .build();
+    }
+
+    private static <T> EventSchema<T> prefixOf(EventSchema<T> schema, int fieldCount) {
+        EventSchema.Builder<T> builder = EventSchema.builder(schema.getName(), schema.getType(),
+                () -> {
+                    throw new UnsupportedOperationException("write-only");
+                });
+        for (EventSchema.Field<T> field : schema.getFields().subList(0, fieldCount)) {
+            builder.field(field.name(), field.type(), field.getter(), field.setter());
+        }
+        return builder.build();
+    }
+
+    private static List<String> readRecordedSchema(String name) throws IOException {
+        try (InputStream in = EventSchemaCompatibilityTest.class
+                .getResourceAsStream("/kafka-schemas/" + name + ".schema")) {
+            assertNotNull(in, "No recorded schema for " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .toList();
+        }
+    }
+}
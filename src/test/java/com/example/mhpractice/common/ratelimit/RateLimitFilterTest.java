@@ -0,0 +1,94 @@
+package com.example.mhpractice.common.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.example.mhpractice.common.exception.TooManyRequestsException;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitFilterTest {
+
+    private static final RateLimitRule TRANSFER = RateLimitRule.of("transfer", "/api/v1/wallets/transfer",
+            RateLimitRule.Scope.USER, 30, 60_000);
+
+    @Mock
+    private TokenBucketRateLimiter rateLimiter;
+
+    @Mock
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void success_user_rule_keys_authenticated_caller_by_email() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice@example.com", null, List.of()));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter().doFilter(transferRequest(), new MockHttpServletResponse(), chain);
+
+        verify(rateLimiter).tryAcquire(TRANSFER, "user:alice@example.com");
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void success_user_rule_keys_anonymous_caller_by_ip() throws Exception {
+        filter().doFilter(transferRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(rateLimiter).tryAcquire(TRANSFER, "ip:10.0.0.7");
+    }
+
+    @Test
+    void fail_rejected_rounds_retry_after_up_to_whole_seconds() throws Exception {
+        assertEquals(2, rejectedRetryAfterSeconds(1500));
+        assertEquals(1, rejectedRetryAfterSeconds(1));
+    }
+
+    private long rejectedRetryAfterSeconds(long retryAfterMs) throws Exception {
+        when(rateLimiter.tryAcquire(eq(TRANSFER), any())).thenReturn(retryAfterMs);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter().doFilter(transferRequest(), new MockHttpServletResponse(), chain);
+
+        ArgumentCaptor<TooManyRequestsException> rejection = ArgumentCaptor.forClass(TooManyRequestsException.class);
+        verify(handlerExceptionResolver, atLeastOnce())
+                .resolveException(any(), any(), isNull(), rejection.capture());
+        assertNull(chain.getRequest()); // never reaches the controller
+        return rejection.getValue().getRetryAfterSeconds();
+    }
+
+    private RateLimitFilter filter() {
+        return new RateLimitFilter(List.of(TRANSFER), rateLimiter, handlerExceptionResolver, true, false);
+    }
+
+    private static MockHttpServletRequest transferRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/wallets/transfer");
+        request.setRemoteAddr("10.0.0.7");
+        return request;
+    }
+}
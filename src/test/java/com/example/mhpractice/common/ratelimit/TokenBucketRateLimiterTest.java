@@ -0,0 +1,135 @@
+package com.example.mhpractice.common.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RScript;
+import org.redisson.api.RScript.Mode;
+import org.redisson.api.RScript.ReturnType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.Codec;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenBucketRateLimiterTest {
+
+    // 10 permits, local-share 0.5: a Redis call takes 5 tokens, 1 used + 4 leased
+    private static final RateLimitRule RULE = RateLimitRule.of("test", "/api/**", RateLimitRule.Scope.IP, 10, 60_000);
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RScript script;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(script);
+    }
+
+    @Test
+    void success_lease_serves_surplus_tokens_locally() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(redissonClient, meterRegistry, 0.5, 100);
+        replyWith(5L, 0L);
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(RULE, "ip:1.2.3.4"));
+        }
+
+        // 1st from Redis, 4 from the lease, 6th back to Redis once the lease is used up
+        verifyRedisCalls(2);
+        assertEquals(4, decisions("local"));
+        assertEquals(2, decisions("redis"));
+    }
+
+    @Test
+    void success_expired_lease_goes_back_to_redis() throws InterruptedException {
+        RateLimitRule shortRule = RateLimitRule.of("short", "/api/**", RateLimitRule.Scope.IP, 10, 1);
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(redissonClient, meterRegistry, 0.5, 100);
+        replyWith(5L, 0L);
+
+        rateLimiter.tryAcquire(shortRule, "ip:1.2.3.4");
+        Thread.sleep(5); // past the 1 ms period, unused tokens are no longer served
+        rateLimiter.tryAcquire(shortRule, "ip:1.2.3.4");
+
+        verifyRedisCalls(2);
+        assertEquals(0, decisions("local"));
+    }
+
+    @Test
+    void success_full_lease_map_evicts_only_expired_leases() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(redissonClient, meterRegistry, 0.5, 1);
+        replyWith(5L, 0L);
+
+        rateLimiter.tryAcquire(RULE, "ip:a"); // lease for a fills the map
+        rateLimiter.tryAcquire(RULE, "ip:b"); // a's lease is live, b gets none
+        rateLimiter.tryAcquire(RULE, "ip:b");
+        verifyRedisCalls(3);
+
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.tryAcquire(RULE, "ip:a"); // used up, a's lease is now expired
+        }
+        rateLimiter.tryAcquire(RULE, "ip:b"); // evicts a, b gets the lease
+        rateLimiter.tryAcquire(RULE, "ip:b");
+
+        verifyRedisCalls(4);
+        assertEquals(5, decisions("local"));
+        assertEquals(1, meterRegistry.get("ratelimit.local.leases").gauge().value());
+    }
+
+    @Test
+    void fail_rejected_returns_retry_after_of_at_least_one_ms() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(redissonClient, meterRegistry, 0.5, 100);
+
+        replyWith(0L, 1500L);
+        assertEquals(1500, rateLimiter.tryAcquire(RULE, "ip:1.2.3.4"));
+
+        replyWith(0L, 0L);
+        assertEquals(1, rateLimiter.tryAcquire(RULE, "ip:1.2.3.4"));
+        assertEquals(2, decisions("rejected"));
+    }
+
+    @Test
+    void success_redis_error_fails_open() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(redissonClient, meterRegistry, 0.5, 100);
+        doThrow(new RedisException("connection refused")).when(script)
+                .eval(eq(Mode.READ_WRITE), anyString(), eq(ReturnType.MULTI), anyList(), any(), any(), any());
+
+        assertEquals(0, rateLimiter.tryAcquire(RULE, "ip:1.2.3.4"));
+        assertEquals(1, decisions("error"));
+    }
+
+    private void replyWith(long granted, long retryAfterMs) {
+        doReturn(List.of(granted, retryAfterMs)).when(script)
+                .eval(eq(Mode.READ_WRITE), anyString(), eq(ReturnType.MULTI), anyList(), any(), any(), any());
+    }
+
+    private void verifyRedisCalls(int calls) {
+        verify(script, times(calls))
+                .eval(eq(Mode.READ_WRITE), anyString(), eq(ReturnType.MULTI), anyList(), any(), any(), any());
+    }
+
+    private double decisions(String result) {
+        var counter = meterRegistry.find("ratelimit.decisions").tag("result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.mhpractice.common.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.mhpractice.common.model.AuditLog;
+import com.example.mhpractice.common.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class AuditWriterTest {
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BoundEntityManagerTransactionManager transactionManager = new BoundEntityManagerTransactionManager();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void success_overflow_insert_in_after_commit_is_committed() {
+        AuditWriter auditWriter = new AuditWriter(auditLogRepository, new ObjectMapper(), meterRegistry,
+                transactionManager);
+        ReflectionTestUtils.setField(auditWriter, "durability", AuditWriter.Durability.ASYNC);
+        ReflectionTestUtils.setField(auditWriter, "bufferSize", 0); // always full
+        when(auditLogRepository.save(any())).thenAnswer(invocation -> {
+            transactionManager.uncommitted.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        // Caller's transaction has committed, its EntityManager is still bound
+        TransactionSynchronizationManager.initSynchronization();
+        AuditLog auditLog = AuditLog.builder().action("TRANSFER_SUCCESS").transactionId("txn-1").build();
+        auditWriter.write(auditLog);
+        transactionManager.bound = true;
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(List.of(auditLog), transactionManager.inserted);
+        assertEquals(1, meterRegistry.get("audit.overflow.inline").counter().count());
+    }
+
+    /**
+     * Behaves like JpaTransactionManager around afterCommit: a bound
+     * EntityManager counts as an existing transaction, and a participating
+     * save is only inserted if a new transaction commits it.
+     */
+    static class BoundEntityManagerTransactionManager extends AbstractPlatformTransactionManager {
+
+        boolean bound;
+        final List<AuditLog> uncommitted = new ArrayList<>();
+        final List<AuditLog> inserted = new ArrayList<>();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Tx(bound);
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((Tx) transaction).existing();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            bound = true;
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            bound = false;
+            return Boolean.TRUE;
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+            bound = true;
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            inserted.addAll(uncommitted);
+            uncommitted.clear();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            uncommitted.clear();
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            bound = false;
+        }
+
+        private record Tx(boolean existing) {
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.mhpractice.features.user.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.mhpractice.common.exception.BusinessException;
+import com.example.mhpractice.common.exception.ErrorCode;
+import com.example.mhpractice.common.security.PasswordHashingService;
+import com.example.mhpractice.features.notification.service.NotificationService;
+import com.example.mhpractice.features.user.models.User;
+import com.example.mhpractice.features.user.models.VerificationToken.OtpPurposes;
+import com.example.mhpractice.features.user.otp.OtpStore;
+import com.example.mhpractice.features.user.otp.OtpStore.Attempt;
+import com.example.mhpractice.features.user.otp.OtpStore.AttemptResult;
+import com.example.mhpractice.features.user.otp.OtpStore.ResendResult;
+import com.example.mhpractice.features.user.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class OtpServiceImplTest {
+
+    private static final String EMAIL = "test@example.com";
+    private static final OtpPurposes PURPOSE = OtpPurposes.VERIFICATION;
+    private static final String IP = "127.0.0.1";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OtpStore otpStore;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @InjectMocks
+    private OtpServiceImpl otpService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email(EMAIL)
+                .build();
+    }
+
+    @Test
+    void success_verify_otp() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(otpStore.recordAttempt(EMAIL, PURPOSE)).thenReturn(new Attempt(AttemptResult.OK, "hash"));
+        when(passwordHashingService.matchesOtp("123456", EMAIL, PURPOSE.name(), "hash")).thenReturn(true);
+        when(otpStore.consume(EMAIL, PURPOSE, "hash")).thenReturn(true);
+
+        assertTrue(otpService.verifyOtp(EMAIL, PURPOSE, "123456", IP));
+
+        assertTrue(user.isEmailVerified());
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void fail_verify_otp_not_found() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(otpStore.recordAttempt(EMAIL, PURPOSE)).thenReturn(new Attempt(AttemptResult.NOT_FOUND, null));
+
+        assertErrorCode(ErrorCode.OTP_NOT_FOUND, () -> otpService.verifyOtp(EMAIL, PURPOSE, "123456", IP));
+        verify(passwordHashingService, never()).matchesOtp(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void fail_verify_otp_max_attempts() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(otpStore.recordAttempt(EMAIL, PURPOSE))
+                .thenReturn(new Attempt(AttemptResult.MAX_ATTEMPTS_EXCEEDED, null));
+
+        // Even the right code is refused once the attempts are used up
+        assertErrorCode(ErrorCode.OTP_MAX_ATTEMPTS_EXCEEDED,
+                () -> otpService.verifyOtp(EMAIL, PURPOSE, "123456", IP));
+        verify(otpStore, never()).consume(anyString(), any(), anyString());
+    }
+
+    @Test
+    void fail_verify_otp_wrong_code() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(otpStore.recordAttempt(EMAIL, PURPOSE)).thenReturn(new Attempt(AttemptResult.OK, "hash"));
+        when(passwordHashingService.matchesOtp("000000", EMAIL, PURPOSE.name(), "hash")).thenReturn(false);
+
+        assertErrorCode(ErrorCode.INVALID_OTP, () -> otpService.verifyOtp(EMAIL, PURPOSE, "000000", IP));
+        verify(otpStore, never()).consume(anyString(), any(), anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void fail_verify_otp_consumed_by_concurrent_request() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(otpStore.recordAttempt(EMAIL, PURPOSE)).thenReturn(new Attempt(AttemptResult.OK, "hash"));
+        when(passwordHashingService.matchesOtp("123456", EMAIL, PURPOSE.name(), "hash")).thenReturn(true);
+        when(otpStore.consume(EMAIL, PURPOSE, "hash")).thenReturn(false);
+
+        assertErrorCode(ErrorCode.OTP_EXPIRED, () -> otpService.verifyOtp(EMAIL, PURPOSE, "123456", IP));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void fail_resend_otp_too_frequent() {
+        when(userRepository.existsByEmail(EMAIL)).thenReturn(true);
+        when(otpStore.recordResend(EMAIL, PURPOSE)).thenReturn(ResendResult.TOO_FREQUENT);
+
+        assertErrorCode(ErrorCode.OTP_REQUEST_TOO_FREQUENT, () -> otpService.resendOtp(EMAIL, PURPOSE, IP));
+        verify(otpStore, never()).save(any(), any(), anyString(), anyString());
+        verify(notificationService, never()).sendOtpEmail(anyString(), anyString());
+    }
+
+    @Test
+    void fail_resend_otp_max_resend() {
+        when(userRepository.existsByEmail(EMAIL)).thenReturn(true);
+        when(otpStore.recordResend(EMAIL, PURPOSE)).thenReturn(ResendResult.MAX_RESEND_EXCEEDED);
+
+        assertErrorCode(ErrorCode.OTP_MAX_RESEND_EXCEEDED, () -> otpService.resendOtp(EMAIL, PURPOSE, IP));
+        verify(notificationService, never()).sendOtpEmail(anyString(), anyString());
+    }
+
+    @Test
+    void fail_resend_otp_unknown_email() {
+        when(userRepository.existsByEmail(EMAIL)).thenReturn(false);
+
+        // No resend window is opened for an email without an account
+        assertErrorCode(ErrorCode.USER_NOT_FOUND, () -> otpService.resendOtp(EMAIL, PURPOSE, IP));
+        verify(otpStore, never()).recordResend(anyString(), any());
+    }
+
+    private static void assertErrorCode(ErrorCode expected, Runnable call) {
+        BusinessException exception = assertThrows(BusinessException.class, call::run);
+        assertEquals(expected, exception.getErrorCode());
+    }
+}
@@ -14,6 +14,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.example.mhpractice.common.exception.BusinessException;
+import com.example.mhpractice.common.security.AuthenticatedUserCache;
 import com.example.mhpractice.features.user.models.User;
 import com.example.mhpractice.features.user.repository.UserRepository;
 
@@ -23,6 +24,9 @@ public class UserProfileServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AuthenticatedUserCache authenticatedUserCache;
+
     @InjectMocks
     private UserServiceImpl userProfileService;
 
@@ -68,5 +72,6 @@ public class UserProfileServiceImplTest {
         verify(userRepository).save(argThat(user -> {
             return user.getEmail().equals(email) && user.getName().equals(name);
         }));
+        verify(authenticatedUserCache).evictAfterCommit(email);
     }
 }
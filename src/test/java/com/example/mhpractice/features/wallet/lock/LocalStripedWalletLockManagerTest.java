@@ -0,0 +1,56 @@
+package com.example.mhpractice.features.wallet.lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.mhpractice.features.wallet.lock.WalletLockManager.LockHandle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LocalStripedWalletLockManagerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void success_lock_same_stripe_twice_in_one_call() {
+        // 1 stripe: every key collides, must not self-deadlock
+        LocalStripedWalletLockManager lockManager = new LocalStripedWalletLockManager(1, meterRegistry);
+
+        LockHandle lock = lockManager.lockWallets(List.of(UUID.randomUUID(), UUID.randomUUID()));
+        lock.unlock();
+
+        assertEquals(1, meterRegistry.get("wallet.lock.acquire").tag("contended", "false").timer().count());
+    }
+
+    @Test
+    void success_opposite_transfers_do_not_deadlock() throws Exception {
+        LocalStripedWalletLockManager lockManager = new LocalStripedWalletLockManager(16, meterRegistry);
+        UUID walletA = UUID.randomUUID();
+        UUID walletB = UUID.randomUUID();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch done = new CountDownLatch(2000);
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> {
+                lockManager.lockWallets(List.of(walletA, walletB)).unlock();
+                done.countDown();
+            });
+            executor.submit(() -> {
+                lockManager.lockWallets(List.of(walletB, walletA)).unlock();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdownNow();
+    }
+}